@@ -0,0 +1,36 @@
+package model;
+
+import java.lang.foreign.Arena;
+
+/**
+ * OffHeapAllocator keeps all buffers of a world off the heap in memory segments of an {@link Arena}. The
+ * buffers live until the arena is closed. A confined arena only allows access from the thread that created
+ * it, so a world generated by the {@link TiledMazeGenerator} or ticked on another thread needs a shared
+ * arena.
+ * <p>
+ * This class needs JDK 22 or later and is only compiled there, see {@link StorageAllocator}.
+ */
+public class OffHeapAllocator implements StorageAllocator {
+
+	// The arena the buffers are allocated from
+	private final Arena arena;
+
+	/**
+	 * Constructs an allocator that allocates from the given arena.
+	 *
+	 * @param arena the arena the buffers are allocated from
+	 */
+	public OffHeapAllocator(Arena arena) {
+		this.arena = arena;
+	}
+
+	@Override
+	public LongStorage allocateLongs(int size) {
+		return new SegmentLongStorage(arena, size);
+	}
+
+	@Override
+	public IntStorage allocateInts(int size) {
+		return new SegmentIntStorage(arena, size);
+	}
+}
@@ -0,0 +1,57 @@
+package model;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+
+/**
+ * SegmentIntStorage keeps the values off the heap in a {@link MemorySegment}, so large distance fields
+ * neither count against the heap nor have to be scanned or moved by the garbage collector. The memory
+ * belongs to the given {@link Arena} and is released when the arena is closed; a confined arena only
+ * allows access from the thread that created it.
+ */
+public class SegmentIntStorage implements IntStorage {
+
+	// The values
+	private final MemorySegment values;
+
+	// Number of values
+	private final int size;
+
+	/**
+	 * Constructs a storage of the given number of values, all zero.
+	 *
+	 * @param arena the arena the memory is allocated from
+	 * @param size  Number of values.
+	 */
+	public SegmentIntStorage(Arena arena, int size) {
+		this.values = arena.allocate((long) size * Integer.BYTES, Integer.BYTES);
+		this.size = size;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public int get(int index) {
+		return values.getAtIndex(ValueLayout.JAVA_INT, index);
+	}
+
+	@Override
+	public void set(int index, int value) {
+		values.setAtIndex(ValueLayout.JAVA_INT, index, value);
+	}
+
+	@Override
+	public void fill(int value) {
+		if (value == 0) {
+			values.fill((byte) 0);
+			return;
+		}
+		for (int index = 0; index < size; index++) {
+			values.setAtIndex(ValueLayout.JAVA_INT, index, value);
+		}
+	}
+}
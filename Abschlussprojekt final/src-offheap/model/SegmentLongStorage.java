@@ -0,0 +1,46 @@
+package model;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+
+/**
+ * SegmentLongStorage keeps the words off the heap in a {@link MemorySegment}, so the walls of huge mazes
+ * neither count against the heap nor have to be scanned or moved by the garbage collector. The memory
+ * belongs to the given {@link Arena} and is released when the arena is closed; a confined arena only
+ * allows access from the thread that created it.
+ */
+public class SegmentLongStorage implements LongStorage {
+
+	// The words
+	private final MemorySegment words;
+
+	// Number of words
+	private final int size;
+
+	/**
+	 * Constructs a storage of the given number of words, all zero.
+	 *
+	 * @param arena the arena the memory is allocated from
+	 * @param size  Number of words.
+	 */
+	public SegmentLongStorage(Arena arena, int size) {
+		this.words = arena.allocate((long) size * Long.BYTES, Long.BYTES);
+		this.size = size;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public long get(int index) {
+		return words.getAtIndex(ValueLayout.JAVA_LONG, index);
+	}
+
+	@Override
+	public void set(int index, long value) {
+		words.setAtIndex(ValueLayout.JAVA_LONG, index, value);
+	}
+}
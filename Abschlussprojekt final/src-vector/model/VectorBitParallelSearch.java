@@ -0,0 +1,85 @@
+package model;
+
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * VectorBitParallelSearch is a {@link BitParallelSearch} that finds the cells reached on a level for
+ * several words of a row at once with the Vector API of {@code jdk.incubator.vector}. Each lane does
+ * what {@link WallGrid#getFreeNeighbours} does for one word: it shifts the frontier word both ways,
+ * carries the edge bits of the words beside it, adds the words above and below and removes walls and
+ * cells already visited.
+ * <p>
+ * Only the interior words of a row, which have a word on either side, are loaded as vectors; the first
+ * and last word of a row and the rest that does not fill a vector are left to the scalar search, as are
+ * grids whose walls are not on the heap. The class is built from {@code src-vector} by the
+ * {@code vector} profile and is only used by {@link BitParallelSearch#create} if the JVM was started with
+ * {@code --add-modules jdk.incubator.vector}.
+ */
+public class VectorBitParallelSearch extends BitParallelSearch {
+
+	// Widest vector of words the hardware supports
+	private static final VectorSpecies<Long> SPECIES = LongVector.SPECIES_PREFERRED;
+
+	// Reached cells of the words of one vector, copied out to record them
+	private final long[] lanes = new long[SPECIES.length()];
+
+	/**
+	 * Constructs a search for a world of the given dimensions.
+	 *
+	 * @param width  Width of the world grid.
+	 * @param height Height of the world grid.
+	 */
+	public VectorBitParallelSearch(int width, int height) {
+		super(width, height);
+	}
+
+	@Override
+	void expandRow(WallGrid walls, long[] frontier, long[] visited, int y, int first, int last, int cost, IntStorage distances) {
+		long[] wallWords = walls.heapWords();
+		int wordsPerRow = walls.getWordsPerRow();
+		int from = Math.max(first, 1);
+		int to = Math.min(last, wordsPerRow - 2);
+		if (wallWords == null || to - from + 1 < SPECIES.length()) {
+			super.expandRow(walls, frontier, visited, y, first, last, cost, distances);
+			return;
+		}
+
+		// Words before the interior ones, then whole vectors, then the rest, so the row is recorded in order
+		super.expandRow(walls, frontier, visited, y, first, from - 1, cost, distances);
+
+		boolean hasAbove = y > 0;
+		boolean hasBelow = y < walls.getHeight() - 1;
+		int word = from;
+		for (; word + SPECIES.length() - 1 <= to; word += SPECIES.length()) {
+			int index = y * wordsPerRow + word;
+			LongVector current = LongVector.fromArray(SPECIES, frontier, index);
+			LongVector neighbours = current.lanewise(VectorOperators.LSHL, 1)
+					.or(current.lanewise(VectorOperators.LSHR, 1))
+					.or(LongVector.fromArray(SPECIES, frontier, index - 1).lanewise(VectorOperators.LSHR, 63))
+					.or(LongVector.fromArray(SPECIES, frontier, index + 1).lanewise(VectorOperators.LSHL, 63));
+			if (hasAbove) {
+				neighbours = neighbours.or(LongVector.fromArray(SPECIES, frontier, index - wordsPerRow));
+			}
+			if (hasBelow) {
+				neighbours = neighbours.or(LongVector.fromArray(SPECIES, frontier, index + wordsPerRow));
+			}
+
+			LongVector blocked = LongVector.fromArray(SPECIES, wallWords, index).or(LongVector.fromArray(SPECIES, visited, index));
+			LongVector reached = neighbours.and(blocked.not());
+			if (!reached.compare(VectorOperators.NE, 0L).anyTrue()) {
+				continue;
+			}
+
+			reached.intoArray(lanes, 0);
+			for (int lane = 0; lane < lanes.length; lane++) {
+				if (lanes[lane] != 0) {
+					reach(y, word + lane, lanes[lane], cost, distances);
+				}
+			}
+		}
+
+		super.expandRow(walls, frontier, visited, y, word, last, cost, distances);
+	}
+}
@@ -7,14 +7,18 @@ import view.View;
 import javax.swing.*;
 import java.awt.event.*;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * The Controller class manages user input events (keyboard and mouse) and updates the World accordingly.
+ * With a {@link GameLoop}, every change is handed to the loop's simulation thread and the pursuers move on
+ * the loop's clock; without one, the world is changed right away and the pursuers move with the player.
  */
 public class Controller extends JFrame implements KeyListener, ActionListener, MouseListener {
 
 	private World world; // The game world
 	private List<View> views; // List of views to be updated
+	private GameLoop loop; // The loop advancing the world, null if the world is changed directly
 
 	/**
 	 * Constructs a Controller object with a specified World instance.
@@ -22,12 +26,49 @@ public class Controller extends JFrame implements KeyListener, ActionListener, M
 	 * @param world the World object to control.
 	 */
 	public Controller(World world) {
+		this(world, null);
+	}
+
+	/**
+	 * Constructs a Controller object that hands all changes to the given game loop.
+	 *
+	 * @param world the World object to control.
+	 * @param loop  the GameLoop advancing the world, or null to change the world directly.
+	 */
+	public Controller(World world, GameLoop loop) {
 		this.world = world;
+		this.loop = loop;
 
 		addKeyListener(this); // Register this class as a key listener
 		addMouseListener(this); // Register this class as a mouse listener
 	}
 
+	/**
+	 * Moves the player, on the loop's thread if there is a loop.
+	 *
+	 * @param direction the direction in which to move the player.
+	 */
+	private void movePlayer(Direction direction) {
+		if (loop != null) {
+			loop.movePlayer(direction); // Pursuers keep to the loop's clock
+		} else {
+			world.movePlayer(direction); // Pursuers move with the player
+		}
+	}
+
+	/**
+	 * Applies a change to the world, on the loop's thread if there is a loop.
+	 *
+	 * @param command the change to apply.
+	 */
+	private void apply(Consumer<World> command) {
+		if (loop != null) {
+			loop.submit(command);
+		} else {
+			command.accept(world);
+		}
+	}
+
 	// KeyListener methods
 
 	@Override
@@ -44,47 +85,49 @@ public class Controller extends JFrame implements KeyListener, ActionListener, M
 	public void keyPressed(KeyEvent e) {
 		switch (e.getKeyCode()) {
 			case KeyEvent.VK_UP:
-				world.movePlayer(Direction.UP); // Move player up
+				movePlayer(Direction.UP); // Move player up
 				break;
 
 			case KeyEvent.VK_DOWN:
-				world.movePlayer(Direction.DOWN); // Move player down
+				movePlayer(Direction.DOWN); // Move player down
 				break;
 
 			case KeyEvent.VK_LEFT:
-				world.movePlayer(Direction.LEFT); // Move player left
+				movePlayer(Direction.LEFT); // Move player left
 				break;
 
 			case KeyEvent.VK_RIGHT:
-				world.movePlayer(Direction.RIGHT); // Move player right
+				movePlayer(Direction.RIGHT); // Move player right
 				break;
 
 			case KeyEvent.VK_ENTER:
-				if (world.getWin() || world.getLost()) {
-					world.restartGame(); // Restart game if win or lost
-
-					// Reset game modes
-					world.setMode1(false);
-					world.setMode2(false);
-					world.setMode3(false);
-				} else {
-					world.restartGame(); // Otherwise, just restart the game
-				}
+				apply(world -> {
+					if (world.getWin() || world.getLost()) {
+						world.restartGame(); // Restart game if win or lost
+
+						// Reset game modes
+						world.setMode1(false);
+						world.setMode2(false);
+						world.setMode3(false);
+					} else {
+						world.restartGame(); // Otherwise, just restart the game
+					}
+				});
 				break;
 
 			case KeyEvent.VK_ESCAPE:
 				System.exit(0); // Exit the game on ESC key press
 
 			case KeyEvent.VK_1:
-				world.setMode1(true); // Set game mode 1 (easy)
+				apply(world -> world.setMode1(true)); // Set game mode 1 (easy)
 				break;
 
 			case KeyEvent.VK_2:
-				world.setMode2(true); // Set game mode 2 (medium)
+				apply(world -> world.setMode2(true)); // Set game mode 2 (medium)
 				break;
 
 			case KeyEvent.VK_3:
-				world.setMode3(true); // Set game mode 3 (difficult)
+				apply(world -> world.setMode3(true)); // Set game mode 3 (difficult)
 				break;
 		}
 	}
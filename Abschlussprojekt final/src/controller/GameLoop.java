@@ -0,0 +1,258 @@
+package controller;
+
+import model.Direction;
+import model.World;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * GameLoop advances a {@link World} on a dedicated simulation thread. The pursuers move on a clock of
+ * fixed ticks, independent of the player. Player input and other changes to the world are queued as
+ * commands by one input thread and applied on the simulation thread as soon as it wakes up, so the world
+ * is only ever changed by one thread. All commands waiting by then are applied as one batch, followed by
+ * a single update of the views. Ticks in which no pursuer moves leave the views alone. The
+ * {@link InputQueue} between the threads is bounded and merges a repeated player move that is still
+ * waiting, so a burst of key repeats cannot build up a backlog.
+ * <p>
+ * Every tick is due at a fixed time after the previous one, not after the previous one has finished, so
+ * a slow tick does not shift the ones after it. If the loop falls behind, for example because a search or
+ * a view took long, it catches up with up to {@link #MAX_CATCH_UP_TICKS} ticks in a row and skips the
+ * rest instead of rushing the pursuers.
+ */
+public class GameLoop {
+
+	/**
+	 * Time between two pursuer steps if none is given, in milliseconds.
+	 */
+	public static final long DEFAULT_TICK_MILLIS = 200;
+
+	/**
+	 * Largest number of overdue ticks run in a row before the rest are skipped.
+	 */
+	public static final int MAX_CATCH_UP_TICKS = 5;
+
+	/**
+	 * Number of commands that can wait for the simulation thread before further ones are dropped.
+	 */
+	public static final int INPUT_CAPACITY = 64;
+
+	// The world being advanced
+	private final World world;
+
+	// Time between two ticks
+	private final long tickNanos;
+
+	// Commands waiting to be applied on the simulation thread
+	private final InputQueue<Consumer<World>> commands = new InputQueue<>(INPUT_CAPACITY);
+
+	// One command per direction, reused so that repeated moves can be merged in the queue
+	private final Map<Direction, Consumer<World>> moves = new EnumMap<>(Direction.class);
+
+	// Simulation thread, null until started
+	private volatile Thread thread;
+
+	// Whether the loop should keep running
+	private volatile boolean running = false;
+
+	// Number of ticks run and skipped since the start
+	private volatile long ticks = 0;
+	private volatile long skippedTicks = 0;
+
+	/**
+	 * Constructs a loop that moves the pursuers every {@link #DEFAULT_TICK_MILLIS} milliseconds.
+	 *
+	 * @param world the World object to advance
+	 */
+	public GameLoop(World world) {
+		this(world, DEFAULT_TICK_MILLIS);
+	}
+
+	/**
+	 * Constructs a loop that moves the pursuers at the given rate.
+	 *
+	 * @param world      the World object to advance
+	 * @param tickMillis Time between two ticks in milliseconds.
+	 * @throws IllegalArgumentException if the time is not positive
+	 */
+	public GameLoop(World world, long tickMillis) {
+		if (tickMillis <= 0) {
+			throw new IllegalArgumentException("Tick time must be positive: " + tickMillis);
+		}
+		this.world = world;
+		this.tickNanos = tickMillis * 1_000_000L;
+
+		for (Direction direction : Direction.values()) {
+			moves.put(direction, target -> target.stepPlayer(direction));
+		}
+	}
+
+	/**
+	 * Starts the simulation thread. Does nothing if the loop is running already, or if the thread of a
+	 * stopped loop is still finishing its tick.
+	 */
+	public synchronized void start() {
+		Thread previous = thread;
+		if (running || previous != null && previous.isAlive()) {
+			return;
+		}
+		running = true;
+
+		Thread loop = new Thread(this::run, "game-loop");
+		loop.setDaemon(true);
+		thread = loop;
+		loop.start();
+	}
+
+	/**
+	 * Stops the simulation thread and waits until it has finished its current tick, so the world is no
+	 * longer changed once this returns. Called on the simulation thread itself, e.g. by a command, the
+	 * loop ends after the current batch instead. Commands still queued are not applied.
+	 */
+	public synchronized void stop() {
+		running = false;
+		Thread loop = thread;
+		if (loop == null || loop == Thread.currentThread()) {
+			return;
+		}
+
+		LockSupport.unpark(loop);
+		boolean interrupted = false;
+		while (loop.isAlive()) {
+			try {
+				loop.join();
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Returns whether the simulation thread is running.
+	 *
+	 * @return true if the loop is running, otherwise false
+	 */
+	public boolean isRunning() {
+		return running;
+	}
+
+	/**
+	 * Returns the number of ticks run since the start.
+	 *
+	 * @return Number of ticks.
+	 */
+	public long getTicks() {
+		return ticks;
+	}
+
+	/**
+	 * Returns the number of overdue ticks that were skipped because the loop fell too far behind.
+	 *
+	 * @return Number of skipped ticks.
+	 */
+	public long getSkippedTicks() {
+		return skippedTicks;
+	}
+
+	/**
+	 * Returns the number of player moves that were merged into an equal move still waiting.
+	 *
+	 * @return Number of merged moves.
+	 */
+	public long getCoalescedInputs() {
+		return commands.getCoalesced();
+	}
+
+	/**
+	 * Returns the number of commands that were dropped because too many were waiting.
+	 *
+	 * @return Number of dropped commands.
+	 */
+	public long getDroppedInputs() {
+		return commands.getDropped();
+	}
+
+	/**
+	 * Queues a command that changes the world. It is applied on the simulation thread, which is woken up
+	 * for it, and the views are updated afterwards. All commands must be queued by the same thread.
+	 *
+	 * @param command the change to apply to the world
+	 * @return true if the command was queued, false if it was dropped because too many are waiting
+	 */
+	public boolean submit(Consumer<World> command) {
+		boolean queued = commands.offer(command);
+		Thread loop = thread;
+		if (loop != null) {
+			LockSupport.unpark(loop);
+		}
+		return queued;
+	}
+
+	/**
+	 * Queues a move of the player. Only the player moves; the pursuers keep to their clock. A move in
+	 * the same direction as the last one still waiting is merged into it.
+	 *
+	 * @param direction the direction in which to move the player
+	 * @return true if the move was queued or merged, false if it was dropped because too many are waiting
+	 */
+	public boolean movePlayer(Direction direction) {
+		return submit(moves.get(direction));
+	}
+
+	/**
+	 * Runs the loop on the simulation thread: applies queued commands, runs the ticks that are due and
+	 * sleeps until the next one, or until a command arrives. The views are only updated if a command
+	 * was applied or a tick changed what they show.
+	 */
+	private void run() {
+		long next = System.nanoTime() + tickNanos;
+
+		// A thread of an earlier start must never run alongside the current one
+		while (running && thread == Thread.currentThread()) {
+			boolean changed = applyCommands();
+
+			long now = System.nanoTime();
+			int ticksRun = 0;
+			while (now - next >= 0 && ticksRun < MAX_CATCH_UP_TICKS) {
+				changed |= world.stepPursuers();
+				next += tickNanos;
+				ticksRun++;
+				ticks++;
+			}
+
+			// Skip what is still overdue, so the pursuers do not rush to make up for it
+			if (now - next >= 0) {
+				long behind = (now - next) / tickNanos + 1;
+				skippedTicks += behind;
+				next += behind * tickNanos;
+			}
+
+			if (changed) {
+				world.updateViews();
+			}
+
+			LockSupport.parkNanos(this, next - System.nanoTime());
+		}
+	}
+
+	/**
+	 * Applies the queued commands to the world as one batch. A batch holds at most as many commands as
+	 * the queue, so a steady stream of input cannot hold back the ticks.
+	 *
+	 * @return true if any command was applied, otherwise false
+	 */
+	private boolean applyCommands() {
+		int applied = 0;
+		Consumer<World> command;
+		while (applied < INPUT_CAPACITY && (command = commands.poll()) != null) {
+			command.accept(world);
+			applied++;
+		}
+		return applied > 0;
+	}
+}
@@ -0,0 +1,141 @@
+package controller;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * InputQueue hands input from the thread that receives it, the Event Dispatch Thread in the game, to the
+ * simulation thread of the {@link GameLoop}. It is a bounded ring buffer for exactly one producer and one
+ * consumer thread and needs no locks: each side only advances its own counter and publishes it with an
+ * ordered write, which makes the element written before it visible to the other side.
+ * <p>
+ * Input the consumer cannot keep up with does not pile up. An element equal to the last one still
+ * waiting in the queue, such as a key repeated by the operating system, is merged into it, and input
+ * arriving while the queue is full is dropped. Elements are compared by identity, so the producer has to
+ * reuse the same object for input that may be merged. The producer remembers the last element it added
+ * instead of reading it back from the slot, and merges only while the consumer's counter shows it has not
+ * been taken. The consumer advances its counter with a full volatile write before it uses an element, so
+ * a merged element is always handled after the input merged into it arrived.
+ *
+ * @param <E> the type of the queued elements
+ */
+public class InputQueue<E> {
+
+	// Slots of the ring buffer, the index of a position is its value masked by the capacity
+	private final Object[] slots;
+	private final int mask;
+
+	// Position of the next element to take, only advanced by the consumer
+	private final AtomicLong head = new AtomicLong();
+
+	// Position of the next free slot, only advanced by the producer
+	private final AtomicLong tail = new AtomicLong();
+
+	// Element added last, at position tail - 1, only used by the producer
+	private Object lastOffered;
+
+	// Number of elements merged into a waiting one and dropped because the queue was full, only written by the producer
+	private volatile long coalesced = 0;
+	private volatile long dropped = 0;
+
+	/**
+	 * Constructs an empty queue that holds at least the given number of elements. The capacity is
+	 * rounded up to a power of two.
+	 *
+	 * @param capacity Number of elements that can wait at the same time.
+	 * @throws IllegalArgumentException if the capacity is not positive or too large
+	 */
+	public InputQueue(int capacity) {
+		if (capacity <= 0 || capacity > 1 << 30) {
+			throw new IllegalArgumentException("Invalid capacity: " + capacity);
+		}
+		int size = Integer.highestOneBit(capacity);
+		if (size < capacity) {
+			size <<= 1;
+		}
+		this.slots = new Object[size];
+		this.mask = size - 1;
+	}
+
+	/**
+	 * Returns the number of elements that can wait at the same time.
+	 *
+	 * @return the capacity
+	 */
+	public int getCapacity() {
+		return slots.length;
+	}
+
+	/**
+	 * Adds an element, unless the same element is still waiting as the last one or the queue is full.
+	 * Must only be called by the producer thread.
+	 *
+	 * @param element the element to add
+	 * @return true if the element was added or merged, false if it was dropped
+	 */
+	public boolean offer(E element) {
+		long t = tail.get();
+		long h = head.get();
+
+		// The last element added sits at t - 1, it is still waiting as long as the consumer has not passed it
+		if (element == lastOffered && h < t) {
+			coalesced++;
+			return true;
+		}
+		if (t - h == slots.length) {
+			dropped++;
+			return false;
+		}
+
+		slots[(int) t & mask] = element;
+		lastOffered = element;
+		tail.lazySet(t + 1);
+		return true;
+	}
+
+	/**
+	 * Takes the oldest element. Must only be called by the consumer thread.
+	 *
+	 * @return the element, or null if the queue is empty
+	 */
+	@SuppressWarnings("unchecked")
+	public E poll() {
+		long h = head.get();
+		if (h == tail.get()) {
+			return null;
+		}
+
+		int index = (int) h & mask;
+		E element = (E) slots[index];
+		slots[index] = null;
+		// A full volatile write, so the element is only used after the producer can see it was taken
+		head.set(h + 1);
+		return element;
+	}
+
+	/**
+	 * Returns whether no element is waiting.
+	 *
+	 * @return true if the queue is empty, otherwise false
+	 */
+	public boolean isEmpty() {
+		return head.get() == tail.get();
+	}
+
+	/**
+	 * Returns the number of elements merged into an equal element that was still waiting.
+	 *
+	 * @return Number of merged elements.
+	 */
+	public long getCoalesced() {
+		return coalesced;
+	}
+
+	/**
+	 * Returns the number of elements dropped because the queue was full.
+	 *
+	 * @return Number of dropped elements.
+	 */
+	public long getDropped() {
+		return dropped;
+	}
+}
@@ -27,8 +27,11 @@ public class Labyrinth {
                 ConsoleView cview = new ConsoleView();
                 world.registerView(cview);  // Registers ConsoleView with the World
 
+                // Creating the game loop that moves the pursuers on their own clock
+                GameLoop loop = new GameLoop(world);
+
                 // Creating the main JFrame controller
-                Controller controller = new Controller(world);
+                Controller controller = new Controller(world, loop);
                 controller.setTitle("Minecraft Labyrinth");
                 controller.setResizable(false);
                 controller.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
@@ -54,6 +57,9 @@ public class Labyrinth {
                 controller.setSize(size);
                 controller.setMinimumSize(size);
                 controller.setVisible(true);
+
+                // Starting the simulation once everything is set up
+                loop.start();
             }
         });
     }
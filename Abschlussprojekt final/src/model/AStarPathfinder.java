@@ -0,0 +1,54 @@
+package model;
+
+/**
+ * AStarPathfinder runs an A* search from the target toward the start, guided by the Manhattan distance to
+ * the start. On a grid with four directions of unit cost this estimate never overshoots and never drops
+ * by more than one per step, so the first time the start is expanded its path is a shortest one. Among
+ * entries of equal estimated length the deeper one is expanded first, which keeps the search from
+ * widening along plateaus of equal estimates.
+ */
+public class AStarPathfinder extends GridPathfinder {
+
+	// Directions in the order the neighbours are explored
+	private static final Direction[] steps = {Direction.UP, Direction.DOWN, Direction.LEFT, Direction.RIGHT};
+
+	// Open list, reused between searches
+	private final SearchHeap open = new SearchHeap(256);
+
+	@Override
+	protected int search(WallGrid walls, int root, int goal) {
+		int goalX = goal % width;
+		int goalY = goal / width;
+
+		open.clear();
+		relax(root, 0, root);
+		open.push(getPriority(0, root % width, root / width, goalX, goalY), root);
+
+		while (!open.isEmpty()) {
+			long priority = open.peekPriority();
+			int current = open.pop();
+
+			// Skip entries that were pushed again with a cheaper path
+			int cost = getCost(priority);
+			if (cost != costs[current]) {
+				continue;
+			}
+			if (current == goal) {
+				return parents[goal];
+			}
+			countExpansion();
+
+			int x = current % width;
+			int y = current / width;
+			for (Direction step : steps) {
+				int nextX = x + step.deltaX;
+				int nextY = y + step.deltaY;
+				if (!walls.isWall(nextX, nextY) && relax(nextY * width + nextX, cost + 1, current)) {
+					open.push(getPriority(cost + 1, nextX, nextY, goalX, goalY), nextY * width + nextX);
+				}
+			}
+		}
+
+		return -1;
+	}
+}
@@ -0,0 +1,141 @@
+package model;
+
+/**
+ * BatchResult holds the aggregated outcome of a number of headless games played in the same mode.
+ * Partial results of parallel workers are merged with {@link #combine(BatchResult)}.
+ */
+public class BatchResult {
+
+	// Mode the games were played in
+	private final int mode;
+
+	// Number of games played, won, lost and stopped at the tick limit
+	private long games = 0;
+	private long wins = 0;
+	private long losses = 0;
+	private long timeouts = 0;
+
+	// Sum of the lengths of all games in ticks
+	private long totalTicks = 0;
+
+	/**
+	 * Constructs an empty result for the given mode.
+	 *
+	 * @param mode 1 for easy, 2 for medium, 3 for difficult mode
+	 */
+	public BatchResult(int mode) {
+		this.mode = mode;
+	}
+
+	/**
+	 * Records the outcome of one game.
+	 *
+	 * @param won   true if the player reached the end
+	 * @param lost  true if the player was caught
+	 * @param ticks the length of the game in ticks
+	 */
+	public void record(boolean won, boolean lost, long ticks) {
+		games++;
+		if (won) {
+			wins++;
+		} else if (lost) {
+			losses++;
+		} else {
+			timeouts++;
+		}
+		totalTicks += ticks;
+	}
+
+	/**
+	 * Adds the games of another result for the same mode to this one.
+	 *
+	 * @param other the result to add
+	 * @return this result
+	 */
+	public BatchResult combine(BatchResult other) {
+		games += other.games;
+		wins += other.wins;
+		losses += other.losses;
+		timeouts += other.timeouts;
+		totalTicks += other.totalTicks;
+		return this;
+	}
+
+	/**
+	 * Returns the mode the games were played in.
+	 *
+	 * @return 1 for easy, 2 for medium, 3 for difficult mode
+	 */
+	public int getMode() {
+		return mode;
+	}
+
+	/**
+	 * Returns the number of games played.
+	 *
+	 * @return the number of games
+	 */
+	public long getGames() {
+		return games;
+	}
+
+	/**
+	 * Returns the number of games won.
+	 *
+	 * @return the number of wins
+	 */
+	public long getWins() {
+		return wins;
+	}
+
+	/**
+	 * Returns the number of games lost.
+	 *
+	 * @return the number of losses
+	 */
+	public long getLosses() {
+		return losses;
+	}
+
+	/**
+	 * Returns the number of games stopped at the tick limit.
+	 *
+	 * @return the number of timeouts
+	 */
+	public long getTimeouts() {
+		return timeouts;
+	}
+
+	/**
+	 * Returns the share of games won.
+	 *
+	 * @return the win rate between 0 and 1
+	 */
+	public double getWinRate() {
+		return games == 0 ? 0 : (double) wins / games;
+	}
+
+	/**
+	 * Returns the share of games lost.
+	 *
+	 * @return the loss rate between 0 and 1
+	 */
+	public double getLossRate() {
+		return games == 0 ? 0 : (double) losses / games;
+	}
+
+	/**
+	 * Returns the mean length of a game.
+	 *
+	 * @return the mean number of ticks per game
+	 */
+	public double getMeanTicks() {
+		return games == 0 ? 0 : (double) totalTicks / games;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("mode %d: %d games, %.1f%% won, %.1f%% lost, %d timeouts, %.1f ticks per game",
+				mode, games, getWinRate() * 100, getLossRate() * 100, timeouts, getMeanTicks());
+	}
+}
@@ -0,0 +1,112 @@
+package model;
+
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+import java.util.stream.LongStream;
+
+/**
+ * BatchRunner plays many independent headless games and aggregates their outcomes. The games are split into
+ * tasks that run on the common fork/join pool; every task owns its own {@link World} and {@link Simulation},
+ * so nothing is shared between threads and throughput grows with the number of cores.
+ */
+public class BatchRunner {
+
+	// Number of games played one after the other by a single task
+	private static final int GAMES_PER_TASK = 64;
+
+	// Increment between the seeds of consecutive games
+	private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+	// Creates a fresh world for every task
+	private final Supplier<World> worlds;
+
+	// Games still running after this many ticks are stopped and counted as timeouts
+	private final long maxTicks;
+
+	/**
+	 * Constructs a batch runner.
+	 *
+	 * @param worlds   creates the world a task plays its games in, called once per task
+	 * @param maxTicks the number of ticks after which a game is stopped
+	 */
+	public BatchRunner(Supplier<World> worlds, long maxTicks) {
+		this.worlds = worlds;
+		this.maxTicks = maxTicks;
+	}
+
+	/**
+	 * Plays the given number of games in one mode.
+	 *
+	 * @param mode     1 for easy, 2 for medium, 3 for difficult mode
+	 * @param games    the number of games to play
+	 * @param policies creates the policy of every game
+	 * @param seed     the seed from which the random number generators of every game are derived
+	 * @return the aggregated outcome of all games, the same for the same seed on any number of cores
+	 */
+	public BatchResult run(int mode, long games, Supplier<Policy> policies, long seed) {
+		long tasks = (games + GAMES_PER_TASK - 1) / GAMES_PER_TASK;
+
+		return LongStream.range(0, tasks).parallel()
+				.mapToObj(task -> runTask(mode, task * GAMES_PER_TASK, Math.min(games, (task + 1) * GAMES_PER_TASK), policies, seed))
+				.collect(() -> new BatchResult(mode), BatchResult::combine, BatchResult::combine);
+	}
+
+	/**
+	 * Plays the given number of games in every mode.
+	 *
+	 * @param games    the number of games to play per mode
+	 * @param policies creates the policy of every game
+	 * @param seed     the seed from which the random number generators of every game are derived
+	 * @return the aggregated outcome per mode, easy mode first
+	 */
+	public BatchResult[] runAllModes(long games, Supplier<Policy> policies, long seed) {
+		BatchResult[] results = new BatchResult[3];
+		for (int mode = 1; mode <= 3; mode++) {
+			results[mode - 1] = run(mode, games, policies, seed);
+		}
+		return results;
+	}
+
+	/**
+	 * Plays a range of games one after the other in a world of its own.
+	 *
+	 * @param mode     the mode to play in
+	 * @param first    the number of the first game
+	 * @param last     the number after the last game
+	 * @param policies creates the policy of every game
+	 * @param seed     the seed of the batch
+	 * @return the outcome of the games of this task
+	 */
+	private BatchResult runTask(int mode, long first, long last, Supplier<Policy> policies, long seed) {
+		Simulation simulation = new Simulation(worlds.get(), mode);
+		BatchResult result = new BatchResult(mode);
+
+		for (long game = first; game < last; game++) {
+			// The game's seed drives both the policy and the pursuers, so every game can be replayed
+			SplittableRandom random = new SplittableRandom(mix(seed + game * GOLDEN_GAMMA));
+			simulation.reset(random.nextLong());
+			Policy policy = policies.get();
+
+			World world = simulation.getWorld();
+			while (simulation.getTicks() < maxTicks && simulation.step(policy.nextMove(world, random))) {
+				// Keep stepping until the game is over or the tick limit is reached
+			}
+
+			result.record(world.getWin(), world.getLost(), simulation.getTicks());
+		}
+
+		return result;
+	}
+
+	/**
+	 * Scrambles the bits of a value, so that neighbouring game numbers get unrelated seeds.
+	 *
+	 * @param z the value to scramble
+	 * @return the scrambled value
+	 */
+	private static long mix(long z) {
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+}
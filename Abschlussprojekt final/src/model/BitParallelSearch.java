@@ -0,0 +1,266 @@
+package model;
+
+import java.lang.reflect.Constructor;
+import java.util.Arrays;
+
+/**
+ * BitParallelSearch fills a distance field by growing the breadth-first frontier a whole word of
+ * 64 cells at a time. Each level is computed from the previous one with shifts, ORs and AND-NOTs on
+ * the packed {@link WallGrid} rows, so large open areas are expanded without a per-cell queue.
+ * The resulting distances are identical to those of the scalar search in {@link DistanceField}.
+ * <p>
+ * To keep sparse frontiers cheap, the search remembers for every row the range of words that hold
+ * frontier cells and only looks at the words next to them on the following level.
+ * <p>
+ * {@link #create(int, int)} returns the {@code VectorBitParallelSearch} instead if the JVM was started
+ * with {@code --add-modules jdk.incubator.vector}. It handles several words of a row at once with the
+ * Vector API and lives in the separate source folder {@code src-vector}, like the off-heap storage in
+ * {@code src-offheap}, so the game still builds and runs without the incubating module.
+ */
+public class BitParallelSearch {
+
+	// Name of the module of the Vector API and of the search using it
+	private static final String VECTOR_MODULE = "jdk.incubator.vector";
+	private static final String VECTOR_SEARCH = "model.VectorBitParallelSearch";
+
+	// Constructor of the search using the Vector API, or null if the module or the class is missing
+	private static final Constructor<? extends BitParallelSearch> vectorSearch = findVectorSearch();
+
+	// Dimensions of the world grid
+	private final int width;
+	private final int height;
+	private final int wordsPerRow;
+
+	// Cells reached so far, the current frontier and the frontier being built
+	private final long[] visited;
+	private long[] frontier;
+	private long[] next;
+
+	// Per row, the first and last word holding frontier cells (empty rows have last < first)
+	private int[] frontierFirst;
+	private int[] frontierLast;
+	private int[] nextFirst;
+	private int[] nextLast;
+
+	// Array behind the distances being filled if they are on the heap, written directly instead of through the storage
+	private int[] heapDistances;
+
+	/**
+	 * Constructs a search for a world of the given dimensions. All buffers are allocated here and reused.
+	 *
+	 * @param width  Width of the world grid.
+	 * @param height Height of the world grid.
+	 */
+	public BitParallelSearch(int width, int height) {
+		this.width = width;
+		this.height = height;
+		this.wordsPerRow = (width + 63) >>> 6;
+
+		this.visited = new long[wordsPerRow * height];
+		this.frontier = new long[wordsPerRow * height];
+		this.next = new long[wordsPerRow * height];
+
+		this.frontierFirst = new int[height];
+		this.frontierLast = new int[height];
+		this.nextFirst = new int[height];
+		this.nextLast = new int[height];
+	}
+
+	/**
+	 * Returns a search for a world of the given dimensions, the one using the Vector API if the JVM has
+	 * its module and the build included it, otherwise this scalar one. Both produce the same distances.
+	 *
+	 * @param width  Width of the world grid.
+	 * @param height Height of the world grid.
+	 * @return the new search
+	 */
+	public static BitParallelSearch create(int width, int height) {
+		if (vectorSearch != null) {
+			try {
+				return vectorSearch.newInstance(width, height);
+			} catch (ReflectiveOperationException e) {
+				throw new IllegalStateException("Cannot create " + VECTOR_SEARCH, e);
+			}
+		}
+		return new BitParallelSearch(width, height);
+	}
+
+	/**
+	 * Returns whether {@link #create(int, int)} returns the search using the Vector API.
+	 *
+	 * @return true if the Vector API is used, otherwise false
+	 */
+	public static boolean isVectorized() {
+		return vectorSearch != null;
+	}
+
+	/**
+	 * Looks up the constructor of the search using the Vector API.
+	 *
+	 * @return the constructor, or null if the module is not loaded or the class was not built
+	 */
+	private static Constructor<? extends BitParallelSearch> findVectorSearch() {
+		if (ModuleLayer.boot().findModule(VECTOR_MODULE).isEmpty()) {
+			return null;
+		}
+		try {
+			return Class.forName(VECTOR_SEARCH).asSubclass(BitParallelSearch.class).getConstructor(int.class, int.class);
+		} catch (ClassNotFoundException | NoSuchMethodException | LinkageError e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Computes the number of steps from the root cell to every cell and writes them to the given storage.
+	 *
+	 * @param walls     the grid representing the walls in the world
+	 * @param rootX     the X coordinate of the root cell
+	 * @param rootY     the Y coordinate of the root cell
+	 * @param distances the distances indexed by y * width + x, unreachable cells are set to {@link DistanceField#UNREACHABLE}
+	 */
+	public void fill(WallGrid walls, int rootX, int rootY, IntStorage distances) {
+		heapDistances = distances instanceof IntArrayStorage ? ((IntArrayStorage) distances).array() : null;
+		distances.fill(DistanceField.UNREACHABLE);
+		Arrays.fill(visited, 0);
+		Arrays.fill(frontier, 0);
+		Arrays.fill(next, 0);
+		Arrays.fill(frontierFirst, Integer.MAX_VALUE);
+		Arrays.fill(frontierLast, -1);
+		Arrays.fill(nextFirst, Integer.MAX_VALUE);
+		Arrays.fill(nextLast, -1);
+
+		// The root forms the first frontier
+		int rootWord = rootY * wordsPerRow + (rootX >>> 6);
+		frontier[rootWord] = 1L << rootX;
+		visited[rootWord] = 1L << rootX;
+		frontierFirst[rootY] = rootX >>> 6;
+		frontierLast[rootY] = rootX >>> 6;
+		distances.set(rootY * width + rootX, 0);
+
+		int firstRow = rootY;
+		int lastRow = rootY;
+
+		for (int cost = 1; ; cost++) {
+			long nextRows = expand(walls, firstRow, lastRow, cost, distances);
+
+			// Clear the old frontier so its buffers can hold the level after next
+			for (int y = firstRow; y <= lastRow; y++) {
+				for (int word = frontierFirst[y]; word <= frontierLast[y]; word++) {
+					frontier[y * wordsPerRow + word] = 0;
+				}
+				frontierFirst[y] = Integer.MAX_VALUE;
+				frontierLast[y] = -1;
+			}
+
+			long[] words = frontier;
+			frontier = next;
+			next = words;
+
+			int[] rows = frontierFirst;
+			frontierFirst = nextFirst;
+			nextFirst = rows;
+			rows = frontierLast;
+			frontierLast = nextLast;
+			nextLast = rows;
+
+			if (nextRows < 0) {
+				return;
+			}
+			firstRow = (int) (nextRows >>> 32);
+			lastRow = (int) nextRows;
+		}
+	}
+
+	/**
+	 * Builds the next frontier from the current one and records the distance of the newly reached cells.
+	 *
+	 * @param walls     the grid representing the walls in the world
+	 * @param firstRow  the first row holding frontier cells
+	 * @param lastRow   the last row holding frontier cells
+	 * @param cost      the distance of the cells reached on this level
+	 * @param distances the distances indexed by y * width + x
+	 * @return the first and last row of the next frontier packed as first * 2^32 + last, or -1 if it is empty
+	 */
+	private long expand(WallGrid walls, int firstRow, int lastRow, int cost, IntStorage distances) {
+		int nextFirstRow = Integer.MAX_VALUE;
+		int nextLastRow = -1;
+
+		for (int y = Math.max(0, firstRow - 1); y <= Math.min(height - 1, lastRow + 1); y++) {
+			// Words next to frontier cells in this row or the rows above and below
+			int first = Integer.MAX_VALUE;
+			int last = -1;
+			for (int row = Math.max(firstRow, y - 1); row <= Math.min(lastRow, y + 1); row++) {
+				first = Math.min(first, frontierFirst[row]);
+				last = Math.max(last, frontierLast[row]);
+			}
+			if (last < 0) {
+				continue;
+			}
+			first = Math.max(0, first - 1);
+			last = Math.min(wordsPerRow - 1, last + 1);
+
+			expandRow(walls, frontier, visited, y, first, last, cost, distances);
+
+			if (nextLast[y] >= 0) {
+				nextFirstRow = Math.min(nextFirstRow, y);
+				nextLastRow = y;
+			}
+		}
+
+		return nextLastRow < 0 ? -1 : ((long) nextFirstRow << 32) | nextLastRow;
+	}
+
+	/**
+	 * Finds the cells of a range of words in one row that the frontier reaches on this level, one word
+	 * at a time, and records them with {@link #reach}. Subclasses may handle several words at once, but
+	 * must record the words of the row in ascending order.
+	 *
+	 * @param walls     the grid representing the walls in the world
+	 * @param frontier  the current frontier, not changed by the level
+	 * @param visited   the cells reached so far
+	 * @param y         the row
+	 * @param first     the first word of the range
+	 * @param last      the last word of the range, an empty range ends before its first word
+	 * @param cost      the distance of the cells reached on this level
+	 * @param distances the distances indexed by y * width + x
+	 */
+	void expandRow(WallGrid walls, long[] frontier, long[] visited, int y, int first, int last, int cost, IntStorage distances) {
+		for (int word = first; word <= last; word++) {
+			long reached = walls.getFreeNeighbours(frontier, y, word) & ~visited[y * wordsPerRow + word];
+			if (reached != 0) {
+				reach(y, word, reached, cost, distances);
+			}
+		}
+	}
+
+	/**
+	 * Adds newly reached cells of one word to the next frontier and records their distance.
+	 *
+	 * @param y         the row
+	 * @param word      the index of the word within the row, not less than any word recorded before in the row
+	 * @param reached   the newly reached cells of the word, not empty
+	 * @param cost      the distance of the cells
+	 * @param distances the distances indexed by y * width + x
+	 */
+	final void reach(int y, int word, long reached, int cost, IntStorage distances) {
+		int index = y * wordsPerRow + word;
+		next[index] = reached;
+		visited[index] |= reached;
+		nextFirst[y] = Math.min(nextFirst[y], word);
+		nextLast[y] = word;
+
+		// Record the distance of every newly reached cell
+		int base = y * width + (word << 6);
+		if (heapDistances != null) {
+			while (reached != 0) {
+				heapDistances[base + Long.numberOfTrailingZeros(reached)] = cost;
+				reached &= reached - 1;
+			}
+		} else {
+			while (reached != 0) {
+				distances.set(base + Long.numberOfTrailingZeros(reached), cost);
+				reached &= reached - 1;
+			}
+		}
+	}
+}
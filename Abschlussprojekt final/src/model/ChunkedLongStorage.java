@@ -0,0 +1,251 @@
+package model;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * ChunkedLongStorage reads the wall words of a maze file on demand, for mazes too big to keep in memory
+ * or to map at once. The grid is cut into chunks of {@link #CHUNK_ROWS} rows and up to
+ * {@link #CHUNK_WORDS} words per row, i.e. square-ish tiles of the maze, and a chunk is read from the file
+ * with positional reads the first time one of its words is needed.
+ * <p>
+ * At most a fixed number of chunks is kept in slots. When another one is needed, a chunk that was not
+ * used recently is dropped by the clock algorithm and its array reused, so the memory for the walls stays
+ * bounded however large the maze is. Play only touches the chunks around the player and the pursuers,
+ * which therefore stay loaded. Chunks are found by scanning the chunk numbers of the slots, which is
+ * cheap for the few dozen chunks a game needs, and the chunk used last is checked first.
+ * <p>
+ * The storage is read-only and not thread-safe, because reading a word may load a chunk. Every thread
+ * needs its own storage; {@link #copy()} gives one that reads the same file with a cache of its own.
+ */
+public class ChunkedLongStorage implements LongStorage, Closeable {
+
+	/**
+	 * Number of rows of a chunk.
+	 */
+	public static final int CHUNK_ROWS = 64;
+
+	/**
+	 * Largest number of words per row of a chunk, 1024 cells.
+	 */
+	public static final int CHUNK_WORDS = 16;
+
+	// File the words are read from and position of the first word in it
+	private final FileChannel channel;
+	private final long offset;
+
+	// Layout of the words in the file
+	private final int wordsPerRow;
+	private final int rows;
+
+	// Words per row of a chunk and number of chunks per band of rows
+	private final int chunkWords;
+	private final int chunksPerBand;
+
+	// Largest number of chunks kept in memory
+	private final int maxChunks;
+
+	// Number of the chunk in each slot and its words, the first loadedChunks slots are in use
+	private final int[] slotChunks;
+	private final long[][] slotWords;
+	private int loadedChunks = 0;
+
+	// Whether the chunk in each slot was used since the clock hand last passed it
+	private final boolean[] referenced;
+
+	// Slot the clock hand looks at next when a chunk has to be dropped
+	private int hand = 0;
+
+	// Most recently used chunk and its slot, checked before the slots are scanned
+	private int lastChunk = -1;
+	private int lastSlot = -1;
+	private long[] lastWords;
+
+	// Buffer a row of a chunk is read into
+	private final ByteBuffer readBuffer;
+
+	/**
+	 * Constructs a storage reading the words of a grid from a file.
+	 *
+	 * @param channel     the open file, closed by {@link #close()}
+	 * @param offset      the position of the first word in the file
+	 * @param wordsPerRow the number of words per row of the grid
+	 * @param rows        the number of rows of the grid
+	 * @param maxChunks   the largest number of chunks kept in memory at once
+	 * @throws IllegalArgumentException if fewer than one chunk may be kept
+	 */
+	public ChunkedLongStorage(FileChannel channel, long offset, int wordsPerRow, int rows, int maxChunks) {
+		if (maxChunks < 1) {
+			throw new IllegalArgumentException("At least one chunk must be kept: " + maxChunks);
+		}
+
+		this.channel = channel;
+		this.offset = offset;
+		this.wordsPerRow = wordsPerRow;
+		this.rows = rows;
+		this.chunkWords = Math.min(CHUNK_WORDS, wordsPerRow);
+		this.chunksPerBand = (wordsPerRow + chunkWords - 1) / chunkWords;
+		this.readBuffer = ByteBuffer.allocate(chunkWords * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+
+		this.maxChunks = maxChunks;
+		this.slotChunks = new int[maxChunks];
+		this.slotWords = new long[maxChunks][];
+		this.referenced = new boolean[maxChunks];
+		Arrays.fill(slotChunks, -1);
+	}
+
+	/**
+	 * Returns a new storage that reads the same file with an empty cache of its own, so another thread
+	 * can use it. Both share the file, which closing either of them closes.
+	 *
+	 * @return the new storage
+	 */
+	public ChunkedLongStorage copy() {
+		return new ChunkedLongStorage(channel, offset, wordsPerRow, rows, maxChunks);
+	}
+
+	/**
+	 * Returns the number of chunks currently in memory.
+	 *
+	 * @return Number of loaded chunks.
+	 */
+	public int getLoadedChunks() {
+		return loadedChunks;
+	}
+
+	@Override
+	public int size() {
+		return wordsPerRow * rows;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @throws UncheckedIOException if the chunk holding the word cannot be read
+	 */
+	@Override
+	public long get(int index) {
+		int y = index / wordsPerRow;
+		int word = index - y * wordsPerRow;
+		int chunk = (y / CHUNK_ROWS) * chunksPerBand + word / chunkWords;
+
+		if (chunk != lastChunk) {
+			// The chunk used until now counts as used when the clock hand next comes by
+			if (lastSlot >= 0) {
+				referenced[lastSlot] = true;
+			}
+			// Its slot may be reused for the new chunk, so it must not be read from if the load fails
+			lastChunk = -1;
+			int slot = findSlot(chunk);
+			if (slot < 0) {
+				slot = load(chunk);
+			}
+			referenced[slot] = true;
+			lastChunk = chunk;
+			lastSlot = slot;
+			lastWords = slotWords[slot];
+		}
+
+		return lastWords[(y % CHUNK_ROWS) * chunkWords + word % chunkWords];
+	}
+
+	/**
+	 * Returns the slot holding the given chunk.
+	 *
+	 * @param chunk the number of the chunk
+	 * @return the slot, or -1 if the chunk is not loaded
+	 */
+	private int findSlot(int chunk) {
+		for (int slot = 0; slot < loadedChunks; slot++) {
+			if (slotChunks[slot] == chunk) {
+				return slot;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns a slot for another chunk: a free one while there are any, otherwise the first slot the
+	 * clock hand finds that was not used since it last passed, whose chunk is dropped.
+	 *
+	 * @return the slot
+	 */
+	private int freeSlot() {
+		if (loadedChunks < maxChunks) {
+			slotWords[loadedChunks] = new long[CHUNK_ROWS * chunkWords];
+			return loadedChunks++;
+		}
+
+		while (referenced[hand]) {
+			referenced[hand] = false;
+			hand = hand + 1 == maxChunks ? 0 : hand + 1;
+		}
+		int slot = hand;
+		hand = hand + 1 == maxChunks ? 0 : hand + 1;
+		return slot;
+	}
+
+	/**
+	 * Always fails, the words of a file are read-only.
+	 *
+	 * @throws UnsupportedOperationException always
+	 */
+	@Override
+	public void set(int index, long value) {
+		throw new UnsupportedOperationException("Storage is read-only");
+	}
+
+	/**
+	 * Reads a chunk from the file into a slot, one row at a time.
+	 *
+	 * @param chunk the number of the chunk
+	 * @return the slot now holding the words of the chunk, row after row
+	 */
+	private int load(int chunk) {
+		int slot = freeSlot();
+		long[] words = slotWords[slot];
+		// Forget the dropped chunk before reading, so a failed read leaves no stale words behind
+		slotChunks[slot] = -1;
+
+		int firstRow = chunk / chunksPerBand * CHUNK_ROWS;
+		int firstWord = chunk % chunksPerBand * chunkWords;
+		int height = Math.min(CHUNK_ROWS, rows - firstRow);
+		int width = Math.min(chunkWords, wordsPerRow - firstWord);
+
+		try {
+			for (int row = 0; row < height; row++) {
+				long position = offset + ((long) (firstRow + row) * wordsPerRow + firstWord) * Long.BYTES;
+				readBuffer.clear().limit(width * Long.BYTES);
+				while (readBuffer.hasRemaining()) {
+					if (channel.read(readBuffer, position + readBuffer.position()) < 0) {
+						throw new EOFException("Maze file ended inside chunk " + chunk);
+					}
+				}
+				readBuffer.flip();
+				readBuffer.asLongBuffer().get(words, row * chunkWords, width);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+
+		slotChunks[slot] = chunk;
+		return slot;
+	}
+
+	/**
+	 * Closes the file, also for the copies of this storage. Words that are not loaded can no longer be
+	 * read afterwards.
+	 *
+	 * @throws IOException if the file cannot be closed
+	 */
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+}
@@ -0,0 +1,54 @@
+package model;
+
+/**
+ * DijkstraPathfinder runs an uninformed search from the target until it reaches the start. Every move
+ * costs one step, so Dijkstra's algorithm reduces to a breadth-first search that expands the cells in
+ * rings of growing distance around the target. It is the baseline the informed searches are measured
+ * against.
+ */
+public class DijkstraPathfinder extends GridPathfinder {
+
+	// Directions in the order the neighbours are explored
+	private static final Direction[] steps = {Direction.UP, Direction.DOWN, Direction.LEFT, Direction.RIGHT};
+
+	// Cell indices in the order the search reaches them, every cell is queued at most once
+	private int[] queue;
+
+	@Override
+	protected int search(WallGrid walls, int root, int goal) {
+		if (queue == null || queue.length != width * height) {
+			queue = new int[width * height];
+		}
+
+		relax(root, 0, root);
+		int head = 0;
+		int tail = 0;
+		queue[tail++] = root;
+
+		while (head < tail) {
+			int current = queue[head++];
+			countExpansion();
+
+			int x = current % width;
+			int y = current / width;
+			int cost = costs[current] + 1;
+
+			// Explore the four neighbours, skipping walls and cells already reached (borders count as walls)
+			for (Direction step : steps) {
+				if (walls.isWall(x + step.deltaX, y + step.deltaY)) {
+					continue;
+				}
+				int next = current + step.deltaY * width + step.deltaX;
+				if (!isReached(next)) {
+					relax(next, cost, current);
+					if (next == goal) {
+						return current;
+					}
+					queue[tail++] = next;
+				}
+			}
+		}
+
+		return -1;
+	}
+}
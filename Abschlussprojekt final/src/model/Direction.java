@@ -1,6 +1,8 @@
 package model;
 
-import java.util.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.random.RandomGenerator;
 
 /**
  * The Direction enum represents cardinal directions and provides utility methods for directions.
@@ -44,9 +46,6 @@ public enum Direction {
 	// Array of all directions
 	private static final Direction[] values = {UP, DOWN, LEFT, RIGHT};
 
-	// Random number generator for obtaining random directions
-	private static final Random random = new Random();
-
 	/**
 	 * Constructs a Direction with specified deltaX and deltaY.
 	 *
@@ -59,11 +58,12 @@ public enum Direction {
 	}
 
 	/**
-	 * Returns a random Direction from the predefined set of values.
+	 * Returns a random Direction from the predefined set of values, drawn from the given generator.
 	 *
+	 * @param random the random number generator to draw from
 	 * @return a random Direction
 	 */
-	public static Direction getRandomDirection() {
+	public static Direction getRandomDirection(RandomGenerator random) {
 		int randomIndex = random.nextInt(values.length);
 		return values[randomIndex];
 	}
@@ -71,111 +71,63 @@ public enum Direction {
 	//////////////////////////////// Dijkstra Algorithm ///////////////////////////////////////////
 
 	/**
-	 * Performs Dijkstra's algorithm to find the shortest path from pursuerCoords to playerCoords.
+	 * Finds the shortest path from pursuerCoords to playerCoords.
+	 * Every move costs one step, so Dijkstra's algorithm reduces to the breadth-first search of the
+	 * world's {@link DistanceField}, which is rooted at the player and reused between calls.
 	 *
 	 * @param world         the World object representing the game world
 	 * @param playerCoords  the coordinates of the player [x, y]
 	 * @param pursuerCoords the coordinates of the pursuer [x, y]
-	 * @param walls         a 2D boolean array representing the walls in the world
-	 * @return a list of int arrays representing the coordinates of the path from pursuer to player
+	 * @param walls         the grid representing the walls in the world
+	 * @return a list of int arrays representing the coordinates of the path from pursuer to player,
+	 * containing only the pursuer if the player cannot be reached
 	 */
-	public static List<int[]> dijkstra(World world, int[] playerCoords, int[] pursuerCoords, boolean[][] walls) {
-		// Swap playerCoords and pursuerCoords
-		int[] temp = playerCoords;
-		playerCoords = pursuerCoords;
-		pursuerCoords = temp;
-
-		int width = world.getWidth();
-		int height = world.getHeight();
-
-		// Priority queue for Dijkstra's algorithm
-		PriorityQueue<int[]> pq = new PriorityQueue<>(Comparator.comparingInt(a -> a[2])); // {x, y, cost}
-		pq.offer(new int[]{playerCoords[0], playerCoords[1], 0});
-
-		// Array to store minimum cost to reach each cell
-		int[][] minCost = new int[width][height];
-		for (int[] row : minCost) {
-			Arrays.fill(row, Integer.MAX_VALUE);
-		}
-		minCost[playerCoords[0]][playerCoords[1]] = 0;
-
-		// Array to store parent cell for each cell in the path
-		int[][][] parent = new int[width][height][2]; // {parentX, parentY}
-		parent[playerCoords[0]][playerCoords[1]] = new int[]{-1, -1};
-
-		// Perform Dijkstra's algorithm
-		while (!pq.isEmpty()) {
-			int[] current = pq.poll();
-			int x = current[0];
-			int y = current[1];
-			int cost = current[2];
-
-			if (cost > minCost[x][y]) {
-				continue;
-			}
-
-			// Explore all valid neighbors
-			for (Direction dir : Direction.values()) {
-				int newX = x + dir.deltaX;
-				int newY = y + dir.deltaY;
-
-				if (newX >= 0 && newX < width && newY >= 0 && newY < height && !walls[newX][newY]) {
-					int newCost = cost + 1;
-
-					if (newCost < minCost[newX][newY]) {
-						minCost[newX][newY] = newCost;
-						pq.offer(new int[]{newX, newY, newCost});
-						parent[newX][newY] = new int[]{x, y};
-					}
-				}
-			}
-		}
+	public static List<int[]> dijkstra(World world, int[] playerCoords, int[] pursuerCoords, WallGrid walls) {
+		DistanceField distances = world.getDistanceField();
+		distances.update(walls, playerCoords[0], playerCoords[1]);
 
-		// Reconstruct path from pursuer to player using parent array
+		// Walk downhill from the pursuer to the player
 		List<int[]> path = new ArrayList<>();
-		int[] current = pursuerCoords;
-		while (!Arrays.equals(current, playerCoords)) {
-			path.add(current);
-			current = parent[current[0]][current[1]];
+		int x = pursuerCoords[0];
+		int y = pursuerCoords[1];
+		path.add(new int[]{x, y});
+
+		Direction step = distances.nextDirection(x, y);
+		while (step != NONE) {
+			x += step.deltaX;
+			y += step.deltaY;
+			path.add(new int[]{x, y});
+			step = distances.nextDirection(x, y);
 		}
-		path.add(playerCoords);
-		Collections.reverse(path);
 
 		return path;
 	}
 
 	/**
-	 * Calculates the list of Directions representing the path from pursuer to player using Dijkstra's algorithm.
+	 * Calculates the list of Directions representing the path from pursuer to player.
 	 *
 	 * @param world         the World object representing the game world
 	 * @param playerCoords  the coordinates of the player [x, y]
 	 * @param pursuerCoords the coordinates of the pursuer [x, y]
-	 * @param walls         a 2D boolean array representing the walls in the world
+	 * @param walls         the grid representing the walls in the world
 	 * @return a list of Directions representing the path from pursuer to player
 	 */
-	public static List<Direction> dijkstraDirections(World world, int[] playerCoords, int[] pursuerCoords, boolean[][] walls) {
+	public static List<Direction> dijkstraDirections(World world, int[] playerCoords, int[] pursuerCoords, WallGrid walls) {
+		DistanceField distances = world.getDistanceField();
+		distances.update(walls, playerCoords[0], playerCoords[1]);
+
 		List<Direction> directions = new ArrayList<>();
-		List<int[]> path = dijkstra(world, playerCoords, pursuerCoords, walls);
-
-		// Convert path to list of Directions
-		for (int i = 1; i < path.size(); i++) {
-			int[] current = path.get(i);
-			int[] previous = path.get(i - 1);
-
-			int dx = current[0] - previous[0];
-			int dy = current[1] - previous[1];
-
-			if (dx == 0 && dy == -1) {
-				directions.add(UP);
-			} else if (dx == 0 && dy == 1) {
-				directions.add(DOWN);
-			} else if (dx == -1 && dy == 0) {
-				directions.add(LEFT);
-			} else if (dx == 1 && dy == 0) {
-				directions.add(RIGHT);
-			}
+		int x = pursuerCoords[0];
+		int y = pursuerCoords[1];
+
+		Direction step = distances.nextDirection(x, y);
+		while (step != NONE) {
+			directions.add(step);
+			x += step.deltaX;
+			y += step.deltaY;
+			step = distances.nextDirection(x, y);
 		}
 
 		return directions;
 	}
-}
\ No newline at end of file
+}
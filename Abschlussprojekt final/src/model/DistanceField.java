@@ -0,0 +1,382 @@
+package model;
+
+/**
+ * A distance field holds the minimum number of steps from a root cell to every other cell of the world.
+ * It is computed once per tick from the player's position, so that every pursuer can read its next step
+ * toward the player in constant time instead of running its own search.
+ * <p>
+ * All moves cost one step, so the field is filled by a breadth-first search. The distances and the
+ * ring-buffer queue are flat buffers of primitive values allocated once with the field and reused for every
+ * search, so no garbage is produced per query. A {@link StorageAllocator} decides whether they are heap
+ * arrays or off-heap memory; heap arrays are accessed directly.
+ * <p>
+ * When the root moves to a neighbouring cell, the field is repaired instead of recomputed. The grid is
+ * bipartite, so every distance changes by exactly one: cells that have a shortest path to the old root
+ * through the new root get one step closer, all others one step further away. The field therefore
+ * stores distances relative to a shared offset. A move raises the offset by one and only the cells that
+ * got closer are visited, by following the old shortest-path edges away from the new root.
+ */
+public class DistanceField {
+
+	/**
+	 * Distance value of cells that cannot be reached from the root.
+	 */
+	public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+	// Offset after which the field is recomputed so the stored values cannot overflow
+	private static final int MAX_OFFSET = 1 << 30;
+
+	// Dimensions of the world grid
+	private final int width;
+	private final int height;
+
+	// Number of steps from the root minus offset, indexed by y * width + x
+	private final IntStorage distances;
+
+	// Added to every stored distance of a reachable cell
+	private int offset = 0;
+
+	// Ring buffer of cell indices waiting to be expanded
+	private final IntStorage queue;
+
+	// Arrays behind the distances and the queue if they are on the heap, read directly instead of through the storage
+	private final int[] heapDistances;
+	private final int[] heapQueue;
+
+	// Root and walls the field was last updated for, used to detect one-step moves of the root
+	private int rootIndex = -1;
+	private WallGrid rootWalls;
+
+	// Optional word-parallel search used instead of the queue, created when first enabled
+	private BitParallelSearch bitParallelSearch;
+	private boolean bitParallel = false;
+
+	/**
+	 * Constructs an empty distance field for a world of the given dimensions, with its buffers on the heap.
+	 *
+	 * @param width  Width of the world grid.
+	 * @param height Height of the world grid.
+	 */
+	public DistanceField(int width, int height) {
+		this(width, height, StorageAllocator.heap());
+	}
+
+	/**
+	 * Constructs an empty distance field for a world of the given dimensions.
+	 *
+	 * @param width     Width of the world grid.
+	 * @param height    Height of the world grid.
+	 * @param allocator Allocator of the distances and the queue.
+	 */
+	public DistanceField(int width, int height, StorageAllocator allocator) {
+		this.width = width;
+		this.height = height;
+		this.distances = allocator.allocateInts(width * height);
+		this.queue = allocator.allocateInts(width * height);
+		this.heapDistances = distances instanceof IntArrayStorage ? ((IntArrayStorage) distances).array() : null;
+		this.heapQueue = queue instanceof IntArrayStorage ? ((IntArrayStorage) queue).array() : null;
+		distances.fill(UNREACHABLE);
+	}
+
+	/**
+	 * Returns whether the field is filled by the word-parallel {@link BitParallelSearch}.
+	 *
+	 * @return true if the bit-parallel search is used, otherwise false
+	 */
+	public boolean getBitParallel() {
+		return bitParallel;
+	}
+
+	/**
+	 * Selects between the queue-based search and the word-parallel {@link BitParallelSearch} for full
+	 * recomputations. Both produce the same distances.
+	 *
+	 * @param value true to use the bit-parallel search, false to use the queue
+	 */
+	public void setBitParallel(boolean value) {
+		if (value && bitParallelSearch == null) {
+			bitParallelSearch = BitParallelSearch.create(width, height);
+		}
+		bitParallel = value;
+	}
+
+	/**
+	 * Forgets the current root, so the next {@link #update} recomputes the whole field.
+	 * Must be called after the walls were changed.
+	 */
+	public void invalidate() {
+		rootIndex = -1;
+		rootWalls = null;
+	}
+
+	/**
+	 * Brings the distance field up to date for the given root cell. Nothing is done if the root did not
+	 * move, the field is repaired if the root moved to a neighbouring cell, and recomputed otherwise.
+	 * The walls must not have changed since the last update unless {@link #invalidate()} was called.
+	 *
+	 * @param walls the grid representing the walls in the world
+	 * @param rootX the X coordinate of the root cell
+	 * @param rootY the Y coordinate of the root cell
+	 */
+	public void update(WallGrid walls, int rootX, int rootY) {
+		int root = rootY * width + rootX;
+		if (walls == rootWalls && rootIndex >= 0 && offset < MAX_OFFSET) {
+			if (root == rootIndex) {
+				return;
+			}
+			if (isNeighbour(rootIndex, root) && readDistance(root) != UNREACHABLE) {
+				moveRoot(root);
+				return;
+			}
+		}
+
+		recompute(walls, rootX, rootY);
+		rootIndex = root;
+		rootWalls = walls;
+	}
+
+	/**
+	 * Recomputes the distance field from the given root cell using a breadth-first search.
+	 *
+	 * @param walls the grid representing the walls in the world
+	 * @param rootX the X coordinate of the root cell
+	 * @param rootY the Y coordinate of the root cell
+	 */
+	private void recompute(WallGrid walls, int rootX, int rootY) {
+		offset = 0;
+
+		if (bitParallel) {
+			bitParallelSearch.fill(walls, rootX, rootY, distances);
+			return;
+		}
+
+		distances.fill(UNREACHABLE);
+
+		int root = rootY * width + rootX;
+		writeDistance(root, 0);
+
+		int head = 0;
+		int tail = 0;
+		writeQueue(tail++, root);
+
+		int capacity = queue.size();
+		int size = 1;
+
+		while (size > 0) {
+			int current = readQueue(head);
+			if (++head == capacity) {
+				head = 0;
+			}
+			size--;
+
+			int x = current % width;
+			int y = current / width;
+			int cost = readDistance(current) + 1;
+
+			// Explore the four neighbours, skipping walls and cells already reached (borders count as walls)
+			if (!walls.isWall(x, y - 1) && readDistance(current - width) == UNREACHABLE) {
+				writeDistance(current - width, cost);
+				writeQueue(tail, current - width);
+				if (++tail == capacity) {
+					tail = 0;
+				}
+				size++;
+			}
+			if (!walls.isWall(x, y + 1) && readDistance(current + width) == UNREACHABLE) {
+				writeDistance(current + width, cost);
+				writeQueue(tail, current + width);
+				if (++tail == capacity) {
+					tail = 0;
+				}
+				size++;
+			}
+			if (!walls.isWall(x - 1, y) && readDistance(current - 1) == UNREACHABLE) {
+				writeDistance(current - 1, cost);
+				writeQueue(tail, current - 1);
+				if (++tail == capacity) {
+					tail = 0;
+				}
+				size++;
+			}
+			if (!walls.isWall(x + 1, y) && readDistance(current + 1) == UNREACHABLE) {
+				writeDistance(current + 1, cost);
+				writeQueue(tail, current + 1);
+				if (++tail == capacity) {
+					tail = 0;
+				}
+				size++;
+			}
+		}
+	}
+
+	/**
+	 * Repairs the field after the root moved to the given neighbouring cell. The cells that get one step
+	 * closer are exactly those reachable from the new root along edges whose old distance grows by one.
+	 * Their stored value is lowered by two as soon as they are queued, which also marks them as visited.
+	 * Together with the offset raised by one, every other cell ends up one step further away.
+	 *
+	 * @param root the index of the new root cell
+	 */
+	private void moveRoot(int root) {
+		int head = 0;
+		int tail = 0;
+		writeQueue(tail++, root);
+		writeDistance(root, readDistance(root) - 2);
+
+		int capacity = queue.size();
+		int size = 1;
+
+		while (size > 0) {
+			int current = readQueue(head);
+			if (++head == capacity) {
+				head = 0;
+			}
+			size--;
+
+			int x = current % width;
+			int y = current / width;
+
+			// Stored value of a neighbour that was one step further away before the move
+			int next = readDistance(current) + 3;
+
+			if (y > 0 && readDistance(current - width) == next) {
+				writeDistance(current - width, next - 2);
+				writeQueue(tail, current - width);
+				if (++tail == capacity) {
+					tail = 0;
+				}
+				size++;
+			}
+			if (y < height - 1 && readDistance(current + width) == next) {
+				writeDistance(current + width, next - 2);
+				writeQueue(tail, current + width);
+				if (++tail == capacity) {
+					tail = 0;
+				}
+				size++;
+			}
+			if (x > 0 && readDistance(current - 1) == next) {
+				writeDistance(current - 1, next - 2);
+				writeQueue(tail, current - 1);
+				if (++tail == capacity) {
+					tail = 0;
+				}
+				size++;
+			}
+			if (x < width - 1 && readDistance(current + 1) == next) {
+				writeDistance(current + 1, next - 2);
+				writeQueue(tail, current + 1);
+				if (++tail == capacity) {
+					tail = 0;
+				}
+				size++;
+			}
+		}
+
+		offset++;
+		rootIndex = root;
+	}
+
+	/**
+	 * Returns whether two cells share an edge.
+	 *
+	 * @param a the index of the first cell
+	 * @param b the index of the second cell
+	 * @return true if the cells are horizontal or vertical neighbours, otherwise false
+	 */
+	private boolean isNeighbour(int a, int b) {
+		int difference = Math.abs(a - b);
+		return difference == width || (difference == 1 && a / width == b / width);
+	}
+
+	/**
+	 * Returns the number of steps from the root to the given cell.
+	 *
+	 * @param x the X coordinate of the cell
+	 * @param y the Y coordinate of the cell
+	 * @return the distance to the root, or {@link #UNREACHABLE} if there is no path
+	 */
+	public int getDistance(int x, int y) {
+		int stored = readDistance(y * width + x);
+		return stored == UNREACHABLE ? UNREACHABLE : stored + offset;
+	}
+
+	/**
+	 * Returns the direction of the first step on a shortest path from the given cell to the root.
+	 *
+	 * @param x the X coordinate of the cell
+	 * @param y the Y coordinate of the cell
+	 * @return the next step toward the root, or {@link Direction#NONE} if the cell is the root or unreachable
+	 */
+	public Direction nextDirection(int x, int y) {
+		int index = y * width + x;
+		int stored = readDistance(index);
+		if (stored == UNREACHABLE || stored + offset == 0) {
+			return Direction.NONE;
+		}
+
+		// Neighbours share the offset, so stored values can be compared directly
+		if (y > 0 && readDistance(index - width) == stored - 1) {
+			return Direction.UP;
+		}
+		if (y < height - 1 && readDistance(index + width) == stored - 1) {
+			return Direction.DOWN;
+		}
+		if (x > 0 && readDistance(index - 1) == stored - 1) {
+			return Direction.LEFT;
+		}
+		if (x < width - 1 && readDistance(index + 1) == stored - 1) {
+			return Direction.RIGHT;
+		}
+
+		return Direction.NONE;
+	}
+
+	/**
+	 * Returns the stored distance of a cell, from the heap array if there is one.
+	 *
+	 * @param index the index of the cell
+	 * @return the stored distance
+	 */
+	private int readDistance(int index) {
+		return heapDistances != null ? heapDistances[index] : distances.get(index);
+	}
+
+	/**
+	 * Stores the distance of a cell, in the heap array if there is one.
+	 *
+	 * @param index the index of the cell
+	 * @param value the distance minus the offset
+	 */
+	private void writeDistance(int index, int value) {
+		if (heapDistances != null) {
+			heapDistances[index] = value;
+		} else {
+			distances.set(index, value);
+		}
+	}
+
+	/**
+	 * Returns the cell at a position of the queue, from the heap array if there is one.
+	 *
+	 * @param position the position in the ring buffer
+	 * @return the index of the cell
+	 */
+	private int readQueue(int position) {
+		return heapQueue != null ? heapQueue[position] : queue.get(position);
+	}
+
+	/**
+	 * Puts a cell at a position of the queue, in the heap array if there is one.
+	 *
+	 * @param position the position in the ring buffer
+	 * @param cell     the index of the cell
+	 */
+	private void writeQueue(int position, int cell) {
+		if (heapQueue != null) {
+			heapQueue[position] = cell;
+		} else {
+			queue.set(position, cell);
+		}
+	}
+}
@@ -0,0 +1,133 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * A flow field stores for every cell of the world the direction of the first step on a shortest path to
+ * a root cell, usually the player. It is built by one breadth-first search from the root, after which any
+ * number of pursuers find their next step by reading the arrow under them. Building the field costs the
+ * same no matter how many pursuers follow it, which pays off for large crowds.
+ * <p>
+ * Every direction takes one byte. Where several shortest paths exist, the field follows the one the search
+ * reached first, which may differ from the choice of {@link DistanceField#nextDirection}.
+ */
+public class FlowField {
+
+	// Code of cells the search has not reached
+	private static final byte UNREACHED = -1;
+
+	// Directions by their code, which is their ordinal
+	private static final Direction[] directions = Direction.values();
+
+	// Dimensions of the world grid
+	private final int width;
+	private final int height;
+
+	// Code of the direction toward the root, indexed by y * width + x
+	private final byte[] codes;
+
+	// Cell indices in the order the search reaches them, every cell is queued at most once
+	private final int[] queue;
+
+	// Root and walls the field was last built for
+	private int rootIndex = -1;
+	private WallGrid rootWalls;
+
+	/**
+	 * Constructs an empty flow field for a world of the given dimensions.
+	 *
+	 * @param width  Width of the world grid.
+	 * @param height Height of the world grid.
+	 */
+	public FlowField(int width, int height) {
+		this.width = width;
+		this.height = height;
+		this.codes = new byte[width * height];
+		this.queue = new int[width * height];
+		Arrays.fill(codes, UNREACHED);
+	}
+
+	/**
+	 * Forgets the current root, so the next {@link #update} rebuilds the field.
+	 * Must be called after the walls were changed.
+	 */
+	public void invalidate() {
+		rootIndex = -1;
+		rootWalls = null;
+	}
+
+	/**
+	 * Brings the flow field up to date for the given root cell. Nothing is done if the root did not move,
+	 * otherwise the field is rebuilt. The walls must not have changed since the last update unless
+	 * {@link #invalidate()} was called.
+	 *
+	 * @param walls the grid representing the walls in the world
+	 * @param rootX the X coordinate of the root cell
+	 * @param rootY the Y coordinate of the root cell
+	 */
+	public void update(WallGrid walls, int rootX, int rootY) {
+		int root = rootY * width + rootX;
+		if (root == rootIndex && walls == rootWalls) {
+			return;
+		}
+
+		build(walls, root);
+		rootIndex = root;
+		rootWalls = walls;
+	}
+
+	/**
+	 * Rebuilds the field with a breadth-first search from the root. A cell reached from its neighbour
+	 * above points up, and so on, so every arrow leads one step closer to the root.
+	 *
+	 * @param walls the grid representing the walls in the world
+	 * @param root  the index of the root cell
+	 */
+	private void build(WallGrid walls, int root) {
+		Arrays.fill(codes, UNREACHED);
+		codes[root] = (byte) Direction.NONE.ordinal();
+
+		int head = 0;
+		int tail = 0;
+		queue[tail++] = root;
+
+		while (head < tail) {
+			int current = queue[head++];
+			int x = current % width;
+			int y = current / width;
+
+			// Explore the four neighbours, skipping walls and cells already reached (borders count as walls)
+			if (!walls.isWall(x, y - 1) && codes[current - width] == UNREACHED) {
+				codes[current - width] = (byte) Direction.DOWN.ordinal();
+				queue[tail++] = current - width;
+			}
+			if (!walls.isWall(x, y + 1) && codes[current + width] == UNREACHED) {
+				codes[current + width] = (byte) Direction.UP.ordinal();
+				queue[tail++] = current + width;
+			}
+			if (!walls.isWall(x - 1, y) && codes[current - 1] == UNREACHED) {
+				codes[current - 1] = (byte) Direction.RIGHT.ordinal();
+				queue[tail++] = current - 1;
+			}
+			if (!walls.isWall(x + 1, y) && codes[current + 1] == UNREACHED) {
+				codes[current + 1] = (byte) Direction.LEFT.ordinal();
+				queue[tail++] = current + 1;
+			}
+		}
+	}
+
+	/**
+	 * Returns the direction of the first step on a shortest path from the given cell to the root.
+	 *
+	 * @param x the X coordinate of the cell
+	 * @param y the Y coordinate of the cell
+	 * @return the next step toward the root, or {@link Direction#NONE} if the cell is the root or unreachable
+	 */
+	public Direction getDirection(int x, int y) {
+		if (x < 0 || x >= width || y < 0 || y >= height) {
+			return Direction.NONE;
+		}
+		int code = codes[y * width + x];
+		return code == UNREACHED ? Direction.NONE : directions[code];
+	}
+}
@@ -0,0 +1,171 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * GridPathfinder is the base of the searches that look for a single path through the maze. Subclasses
+ * search from the target of the path toward its start and only have to report the cell from which the
+ * start was reached; the first step of the path leads straight toward that cell.
+ * <p>
+ * The buffers are flat primitive arrays of one entry per cell, allocated by {@link #prepare(WallGrid)} or
+ * on the first search and whenever the size of the maze changes. Instead of clearing them before every
+ * search, each entry carries the number of the search that wrote it, so a search costs time only for the
+ * cells it touches. Mazes read in chunks are refused, as they may have far more cells than such buffers
+ * can hold.
+ */
+public abstract class GridPathfinder implements Pathfinder {
+
+	// Dimensions of the maze the buffers were allocated for
+	protected int width = -1;
+	protected int height = -1;
+
+	// Number of the search that last wrote each cell
+	private int[] stamps;
+
+	// Number of the running search
+	private int search = 0;
+
+	// Cost of the best known path from the target to each cell, valid if stamped by the running search
+	protected int[] costs;
+
+	// Cell from which each cell was reached on that path
+	protected int[] parents;
+
+	// Number of nodes expanded by all searches
+	private long expandedNodes = 0;
+
+	/**
+	 * Allocates the buffers for the given grid, unless they fit it already.
+	 *
+	 * @param walls the grid representing the walls in the world
+	 * @throws IllegalArgumentException if the grid is read in chunks, see {@link WallGrid#isChunked()},
+	 *                                  because the buffers would hold an entry for every cell of it
+	 */
+	@Override
+	public void prepare(WallGrid walls) {
+		if (walls.isChunked()) {
+			throw new IllegalArgumentException("No buffers over all " + walls.getWidth() + "x" + walls.getHeight()
+					+ " cells of a maze read in chunks, use a HierarchicalPathfinder");
+		}
+		if (walls.getWidth() != width || walls.getHeight() != height) {
+			width = walls.getWidth();
+			height = walls.getHeight();
+			stamps = new int[width * height];
+			costs = new int[width * height];
+			parents = new int[width * height];
+			search = 0;
+		}
+	}
+
+	@Override
+	public final Direction firstStep(WallGrid walls, int fromX, int fromY, int toX, int toY) {
+		if (fromX == toX && fromY == toY || walls.isWall(fromX, fromY) || walls.isWall(toX, toY)) {
+			return Direction.NONE;
+		}
+
+		prepare(walls);
+		if (++search == Integer.MAX_VALUE) {
+			Arrays.fill(stamps, 0);
+			search = 1;
+		}
+
+		int start = fromY * width + fromX;
+		int reachedFrom = search(walls, toY * width + toX, start);
+		if (reachedFrom < 0) {
+			return Direction.NONE;
+		}
+
+		// The path from the start to the cell it was reached from is a straight line
+		int dx = Integer.signum(reachedFrom % width - fromX);
+		int dy = Integer.signum(reachedFrom / width - fromY);
+		if (dx < 0) {
+			return Direction.LEFT;
+		} else if (dx > 0) {
+			return Direction.RIGHT;
+		}
+		return dy < 0 ? Direction.UP : Direction.DOWN;
+	}
+
+	/**
+	 * Searches a shortest path from the root to the goal. Both cells are free and different.
+	 *
+	 * @param walls the grid representing the walls in the world
+	 * @param root  the index of the cell the search starts from
+	 * @param goal  the index of the cell the search looks for
+	 * @return the index of the cell from which the goal was reached, which lies in a straight free line
+	 * from the goal, or -1 if the goal cannot be reached
+	 */
+	protected abstract int search(WallGrid walls, int root, int goal);
+
+	/**
+	 * Returns whether the running search has reached the given cell.
+	 *
+	 * @param cell the index of the cell
+	 * @return true if the cell has a cost, otherwise false
+	 */
+	protected final boolean isReached(int cell) {
+		return stamps[cell] == search;
+	}
+
+	/**
+	 * Records a path to a cell if the cell was not reached yet or the path is cheaper than the known one.
+	 *
+	 * @param cell   the index of the cell
+	 * @param cost   the cost of the path to the cell
+	 * @param parent the index of the cell the path comes from
+	 * @return true if the path was recorded, otherwise false
+	 */
+	protected final boolean relax(int cell, int cost, int parent) {
+		if (stamps[cell] == search && costs[cell] <= cost) {
+			return false;
+		}
+		stamps[cell] = search;
+		costs[cell] = cost;
+		parents[cell] = parent;
+		return true;
+	}
+
+	/**
+	 * Returns the priority of a cell on the open list of an informed search: the estimated length of a
+	 * path through the cell, the cost so far plus the Manhattan distance to the goal, and among equal
+	 * estimates the deeper cell first.
+	 *
+	 * @param cost  the cost of the path from the root to the cell
+	 * @param x     the X coordinate of the cell
+	 * @param y     the Y coordinate of the cell
+	 * @param goalX the X coordinate of the goal
+	 * @param goalY the Y coordinate of the goal
+	 * @return the priority, smaller values are expanded first
+	 */
+	protected static long getPriority(int cost, int x, int y, int goalX, int goalY) {
+		long estimate = (long) cost + Math.abs(x - goalX) + Math.abs(y - goalY);
+		return (estimate << 32) | (Integer.MAX_VALUE - cost);
+	}
+
+	/**
+	 * Returns the cost of the path a priority of {@link #getPriority} was computed for.
+	 *
+	 * @param priority the priority
+	 * @return the cost of the path
+	 */
+	protected static int getCost(long priority) {
+		return Integer.MAX_VALUE - (int) priority;
+	}
+
+	/**
+	 * Counts one expanded node.
+	 */
+	protected final void countExpansion() {
+		expandedNodes++;
+	}
+
+	@Override
+	public long getExpandedNodes() {
+		return expandedNodes;
+	}
+
+	@Override
+	public void resetExpandedNodes() {
+		expandedNodes = 0;
+	}
+}
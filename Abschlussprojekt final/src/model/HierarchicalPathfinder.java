@@ -0,0 +1,835 @@
+package model;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * HierarchicalPathfinder implements hierarchical path-finding (HPA*) for large mazes. The grid is cut
+ * into square clusters, and every stretch of free cells on both sides of a cluster border gets one or two
+ * entrances. The entrance cells form an abstract graph: entrances facing each other across a border are
+ * one step apart, and the entrances of a cluster are linked with the length of the shortest path between
+ * them inside the cluster. These lengths are computed once per maze, spread over all available cores.
+ * <p>
+ * A search links the start and the goal to the entrances of their clusters, runs A* on the abstract graph
+ * and only refines the part of the path inside the start cluster, which yields the first step. A search
+ * therefore touches two clusters and the entrances along the way instead of the whole grid. Paths are
+ * shortest in perfect mazes, where every border crossing is a single passage, and may be slightly longer
+ * than necessary in open areas, where a wide crossing is reduced to its entrances.
+ * <p>
+ * The abstract graph is built by {@link #prepare(WallGrid)}, which
+ * {@link World#setPathfinder(int, Pathfinder)} calls, and otherwise on the first search. It is built again
+ * whenever another grid is searched; after changing the walls of the same grid, {@link #invalidate()} has
+ * to be called. Building takes seconds for the largest mazes, so it must not happen on a thread that has to
+ * keep to a clock.
+ * <p>
+ * Searches between nearby cells take microseconds. Searches across the largest mazes still cross a graph
+ * of about a million entrances and take around a hundred milliseconds, too long to run for every pursuer
+ * on every tick. The abstract path found for a pursuer, see {@link #firstStep(int, WallGrid, int, int, int, int)},
+ * is therefore kept and followed on later searches while the goal stays in the same cluster and the
+ * pursuer on the path: only its start cluster is searched, which again takes microseconds. A full search
+ * only runs when the goal enters another cluster or the pursuer leaves its path. Worlds do not use this
+ * pathfinder unless it is set; by default all pursuers share one distance field.
+ */
+public class HierarchicalPathfinder implements Pathfinder {
+
+	/**
+	 * Side length of the clusters if none is given.
+	 */
+	public static final int DEFAULT_CLUSTER_SIZE = 16;
+
+	/**
+	 * Smallest allowed side length of the clusters.
+	 */
+	public static final int MIN_CLUSTER_SIZE = 4;
+
+	// Stretches of free border cells at least this long get an entrance at both ends instead of one
+	private static final int SPLIT_ENTRANCE_LENGTH = 6;
+
+	// Number of clusters handed to a worker at once
+	private static final int CLUSTERS_PER_TASK = 64;
+
+	/**
+	 * Number of pursuers, counted from index 0, whose abstract paths are kept. Pursuers with a higher
+	 * index are searched from scratch every time, which bounds the memory of the paths.
+	 */
+	public static final int MAX_CACHED_PATHS = 256;
+
+	// Number of nodes of a kept path after the last matched one that are checked for the pursuer's cluster
+	private static final int PATH_LOOKAHEAD = 4;
+
+	// Directions in the order the neighbours are explored
+	private static final Direction[] steps = {Direction.UP, Direction.DOWN, Direction.LEFT, Direction.RIGHT};
+
+	// Side length of the clusters
+	private final int clusterSize;
+
+	// Grid the abstract graph was built for, null until the first search
+	private WallGrid builtFor;
+
+	// Dimensions of that grid and number of clusters per row and column
+	private int width;
+	private int height;
+	private int clustersX;
+	private int clustersY;
+
+	// Entrances of cluster c are the nodes clusterStarts[c] to clusterStarts[c + 1] - 1
+	private int[] clusterStarts;
+
+	// Cell index of each node
+	private int[] nodeCells;
+
+	// Edges of node n are edgeStarts[n] to edgeStarts[n + 1] - 1, each with its target node and length
+	private int[] edgeStarts;
+	private int[] edgeTargets;
+	private int[] edgeCosts;
+
+	// Distances inside the start cluster and the cell each cell was reached from, by position in the cluster
+	private int[] startDistances;
+	private int[] startParents;
+
+	// Distances inside the goal cluster, by position in the cluster
+	private int[] goalDistances;
+
+	// Queue of the searches inside a cluster
+	private int[] localQueue;
+
+	// Number of the abstract search that last wrote each node, the start and the goal are the last two
+	private int[] stamps;
+	private int search = 0;
+
+	// Best known path length from the start to each node and the node it comes from
+	private int[] costs;
+	private int[] parents;
+
+	// Length of the path from each node to the goal inside the goal cluster, valid if stamped by the search
+	private int[] goalLinkStamps;
+	private int[] goalLinkCosts;
+
+	// Open list of the abstract search, reused between searches
+	private final SearchHeap open = new SearchHeap(256);
+
+	// Abstract path last found for each pursuer as its nodes from the start to the goal cluster, or null
+	private int[][] paths = new int[0][];
+
+	// Cluster of the goal each kept path leads to
+	private int[] pathGoalClusters = new int[0];
+
+	// Position in each kept path of the first node in the cluster the pursuer was last found in
+	private int[] pathPositions = new int[0];
+
+	// Number of nodes expanded by all searches
+	private long expandedNodes = 0;
+
+	/**
+	 * Constructs a pathfinder with clusters of {@link #DEFAULT_CLUSTER_SIZE} cells per side.
+	 */
+	public HierarchicalPathfinder() {
+		this(DEFAULT_CLUSTER_SIZE);
+	}
+
+	/**
+	 * Constructs a pathfinder with clusters of the given side length. Larger clusters give a smaller
+	 * abstract graph, but more work inside the start and goal clusters of every search.
+	 *
+	 * @param clusterSize Side length of the clusters in cells.
+	 * @throws IllegalArgumentException if the side length is less than {@link #MIN_CLUSTER_SIZE}
+	 */
+	public HierarchicalPathfinder(int clusterSize) {
+		if (clusterSize < MIN_CLUSTER_SIZE) {
+			throw new IllegalArgumentException("Cluster size too small: " + clusterSize);
+		}
+		this.clusterSize = clusterSize;
+	}
+
+	/**
+	 * Discards the abstract graph, so the next search builds it again. Needed after the walls of the
+	 * grid that was searched last have changed.
+	 */
+	public void invalidate() {
+		builtFor = null;
+	}
+
+	/**
+	 * Returns the number of entrances in the abstract graph.
+	 *
+	 * @return Number of abstract nodes, 0 before the graph is built.
+	 */
+	public int getNodeCount() {
+		return builtFor == null ? 0 : nodeCells.length;
+	}
+
+	/**
+	 * Returns the number of links in the abstract graph, each direction counted once.
+	 *
+	 * @return Number of abstract edges, 0 before the graph is built.
+	 */
+	public int getEdgeCount() {
+		return builtFor == null ? 0 : edgeTargets.length;
+	}
+
+	/**
+	 * Builds the abstract graph for the given grid, unless it is built already.
+	 *
+	 * @param walls the grid representing the walls in the world
+	 */
+	@Override
+	public void prepare(WallGrid walls) {
+		if (walls != builtFor || walls.getWidth() != width || walls.getHeight() != height) {
+			build(walls);
+		}
+	}
+
+	///////////////////////////////////////////////////////////////////////////// Searching
+
+	@Override
+	public Direction firstStep(WallGrid walls, int fromX, int fromY, int toX, int toY) {
+		return firstStep(-1, walls, fromX, fromY, toX, toY);
+	}
+
+	/**
+	 * Returns the direction of the first step of a pursuer on a shortest path. If the path found for the
+	 * pursuer before still leads to the cluster of the goal and passes the pursuer's cluster within a few
+	 * nodes of where the pursuer was last found on it, the pursuer keeps following it, and only its start
+	 * cluster is searched. Otherwise the abstract graph is searched as in
+	 * {@link #firstStep(WallGrid, int, int, int, int)} and the path found is kept for the pursuer, if its
+	 * index is less than {@link #MAX_CACHED_PATHS}. A kept path ends at the entrance of the goal cluster
+	 * that was best when it was found, so it may be slightly longer than necessary once the goal has moved
+	 * inside its cluster.
+	 *
+	 * @param pursuer the index of the pursuer, or a negative number to neither use nor keep a path
+	 * @param walls   the grid representing the walls in the world, cells outside count as walls
+	 * @param fromX   the X coordinate of the cell the path starts at
+	 * @param fromY   the Y coordinate of the cell the path starts at
+	 * @param toX     the X coordinate of the cell the path leads to
+	 * @param toY     the Y coordinate of the cell the path leads to
+	 * @return the first step, or {@link Direction#NONE} if both cells are the same or there is no path
+	 */
+	@Override
+	public Direction firstStep(int pursuer, WallGrid walls, int fromX, int fromY, int toX, int toY) {
+		if (fromX == toX && fromY == toY || walls.isWall(fromX, fromY) || walls.isWall(toX, toY)) {
+			return Direction.NONE;
+		}
+
+		prepare(walls);
+		int start = fromY * width + fromX;
+		int goal = toY * width + toX;
+		int startCluster = clusterOf(start);
+		int goalCluster = clusterOf(goal);
+
+		searchCluster(walls, startCluster, start, startDistances, startParents);
+
+		// Keep following the path of the pursuer while it leads to the goal's cluster
+		if (startCluster != goalCluster && pursuer >= 0 && pursuer < paths.length) {
+			int target = followPath(pursuer, start, startCluster, goalCluster);
+			if (target >= 0) {
+				return stepToward(start, target, startCluster);
+			}
+		}
+
+		if (++search == Integer.MAX_VALUE) {
+			Arrays.fill(stamps, 0);
+			Arrays.fill(goalLinkStamps, 0);
+			search = 1;
+		}
+		searchCluster(walls, goalCluster, goal, goalDistances, null);
+
+		// A path inside the cluster is a candidate if both cells share one
+		int bestCost = Integer.MAX_VALUE;
+		int target = -1;
+		if (startCluster == goalCluster && startDistances[localIndex(goal)] >= 0) {
+			bestCost = startDistances[localIndex(goal)];
+			target = goal;
+		}
+
+		// The path found replaces the one kept for the pursuer, also if it stays inside the cluster
+		if (pursuer >= 0 && pursuer < paths.length) {
+			paths[pursuer] = null;
+		}
+
+		int reached = searchAbstract(start, goal, startCluster, goalCluster, bestCost);
+		if (reached >= 0) {
+			target = firstTarget(start, goal);
+			if (pursuer >= 0 && pursuer < MAX_CACHED_PATHS) {
+				keepPath(pursuer, goalCluster);
+			}
+		}
+		if (target < 0) {
+			return Direction.NONE;
+		}
+		return stepToward(start, target, startCluster);
+	}
+
+	/**
+	 * Returns the direction of the first step from the start toward a target that lies in the start
+	 * cluster or right next to the start. Only the part of the path inside the start cluster is refined.
+	 *
+	 * @param start        the cell index of the start
+	 * @param target       the cell index of the target
+	 * @param startCluster the cluster of the start, searched last into {@code startParents}
+	 * @return the first step
+	 */
+	private Direction stepToward(int start, int target, int startCluster) {
+		int next = target;
+		if (clusterOf(target) == startCluster) {
+			while (startParents[localIndex(next)] != start) {
+				next = startParents[localIndex(next)];
+			}
+		}
+		return toDirection(next % width - start % width, next / width - start / width);
+	}
+
+	/**
+	 * Finds the next target of a pursuer on the path kept for it. The nodes of the path in the pursuer's
+	 * cluster must start within {@link #PATH_LOOKAHEAD} nodes of where the pursuer was last found, and
+	 * the last of them the pursuer can reach inside the cluster is the target. If the pursuer stands on
+	 * it, the target is the next node across the border.
+	 *
+	 * @param pursuer      the index of the pursuer, less than the number of kept paths
+	 * @param start        the cell index of the pursuer
+	 * @param startCluster the cluster of the pursuer, searched last into {@code startDistances}
+	 * @param goalCluster  the cluster of the goal
+	 * @return the cell index of the target, or -1 if the path cannot be followed from the start
+	 */
+	private int followPath(int pursuer, int start, int startCluster, int goalCluster) {
+		int[] path = paths[pursuer];
+		if (path == null || pathGoalClusters[pursuer] != goalCluster) {
+			return -1;
+		}
+
+		int first = pathPositions[pursuer];
+		int end = Math.min(path.length, first + PATH_LOOKAHEAD);
+		while (first < end && clusterOf(nodeCells[path[first]]) != startCluster) {
+			first++;
+		}
+		if (first == end) {
+			return -1;
+		}
+		int last = first;
+		while (last + 1 < path.length && clusterOf(nodeCells[path[last + 1]]) == startCluster) {
+			last++;
+		}
+
+		for (int position = last; position >= first; position--) {
+			int cell = nodeCells[path[position]];
+			if (startDistances[localIndex(cell)] < 0) {
+				continue;
+			}
+			if (cell == start && position + 1 == path.length) {
+				return -1;
+			}
+			pathPositions[pursuer] = first;
+			return cell != start ? cell : nodeCells[path[position + 1]];
+		}
+		return -1;
+	}
+
+	/**
+	 * Keeps the abstract path just found to the goal for a pursuer, from its first node to the last
+	 * entrance in the goal cluster.
+	 *
+	 * @param pursuer     the index of the pursuer, less than {@link #MAX_CACHED_PATHS}
+	 * @param goalCluster the cluster of the goal
+	 */
+	private void keepPath(int pursuer, int goalCluster) {
+		int startNode = nodeCells.length;
+		int goalNode = startNode + 1;
+
+		int length = 0;
+		for (int node = parents[goalNode]; node != startNode; node = parents[node]) {
+			length++;
+		}
+		int[] path = new int[length];
+		for (int node = parents[goalNode], position = length - 1; node != startNode; node = parents[node]) {
+			path[position--] = node;
+		}
+
+		if (pursuer >= paths.length) {
+			int capacity = Math.min(MAX_CACHED_PATHS, Math.max(pursuer + 1, 2 * paths.length));
+			paths = Arrays.copyOf(paths, capacity);
+			pathGoalClusters = Arrays.copyOf(pathGoalClusters, capacity);
+			pathPositions = Arrays.copyOf(pathPositions, capacity);
+		}
+		paths[pursuer] = path;
+		pathGoalClusters[pursuer] = goalCluster;
+		pathPositions[pursuer] = 0;
+	}
+
+	/**
+	 * Runs A* on the abstract graph from the start to the goal. The start is linked to the entrances of
+	 * its cluster and the entrances of the goal cluster are linked to the goal, both by the distances
+	 * found inside the clusters.
+	 *
+	 * @param start        the cell index of the start
+	 * @param goal         the cell index of the goal
+	 * @param startCluster the cluster of the start
+	 * @param goalCluster  the cluster of the goal
+	 * @param bestCost     the length of a path known already, only shorter paths are searched
+	 * @return the cost of the path to the goal, or -1 if no shorter path was found
+	 */
+	private int searchAbstract(int start, int goal, int startCluster, int goalCluster, int bestCost) {
+		int startNode = nodeCells.length;
+		int goalNode = startNode + 1;
+		int goalX = goal % width;
+		int goalY = goal / width;
+
+		for (int node = clusterStarts[goalCluster]; node < clusterStarts[goalCluster + 1]; node++) {
+			int distance = goalDistances[localIndex(nodeCells[node])];
+			if (distance >= 0) {
+				goalLinkStamps[node] = search;
+				goalLinkCosts[node] = distance;
+			}
+		}
+
+		open.clear();
+		relax(startNode, 0, startNode);
+		open.push(GridPathfinder.getPriority(0, start % width, start / width, goalX, goalY), startNode);
+
+		while (!open.isEmpty()) {
+			long priority = open.peekPriority();
+			int current = open.pop();
+
+			// Skip entries that were pushed again with a cheaper path
+			int cost = GridPathfinder.getCost(priority);
+			if (cost != costs[current]) {
+				continue;
+			}
+			if ((priority >>> 32) >= bestCost) {
+				return -1;
+			}
+			if (current == goalNode) {
+				return cost;
+			}
+			expandedNodes++;
+
+			if (current == startNode) {
+				for (int node = clusterStarts[startCluster]; node < clusterStarts[startCluster + 1]; node++) {
+					int distance = startDistances[localIndex(nodeCells[node])];
+					if (distance >= 0) {
+						push(node, distance, current, goalX, goalY);
+					}
+				}
+				continue;
+			}
+
+			for (int edge = edgeStarts[current]; edge < edgeStarts[current + 1]; edge++) {
+				push(edgeTargets[edge], cost + edgeCosts[edge], current, goalX, goalY);
+			}
+			if (goalLinkStamps[current] == search) {
+				push(goalNode, cost + goalLinkCosts[current], current, goalX, goalY);
+			}
+		}
+
+		return -1;
+	}
+
+	/**
+	 * Puts a node on the open list of the abstract search, unless it is already known with a path at
+	 * most as long.
+	 *
+	 * @param node   the node
+	 * @param cost   the length of the path from the start to the node
+	 * @param parent the node the path comes from
+	 * @param goalX  the X coordinate of the goal
+	 * @param goalY  the Y coordinate of the goal
+	 */
+	private void push(int node, int cost, int parent, int goalX, int goalY) {
+		if (!relax(node, cost, parent)) {
+			return;
+		}
+		int cell = node < nodeCells.length ? nodeCells[node] : goalY * width + goalX;
+		open.push(GridPathfinder.getPriority(cost, cell % width, cell / width, goalX, goalY), node);
+	}
+
+	/**
+	 * Records a path to a node if the node was not reached yet or the path is cheaper than the known one.
+	 *
+	 * @param node   the node
+	 * @param cost   the length of the path to the node
+	 * @param parent the node the path comes from
+	 * @return true if the path was recorded, otherwise false
+	 */
+	private boolean relax(int node, int cost, int parent) {
+		if (stamps[node] == search && costs[node] <= cost) {
+			return false;
+		}
+		stamps[node] = search;
+		costs[node] = cost;
+		parents[node] = parent;
+		return true;
+	}
+
+	/**
+	 * Follows the abstract path found to the goal back to its first cell that differs from the start.
+	 *
+	 * @param start the cell index of the start
+	 * @param goal  the cell index of the goal
+	 * @return the cell index of that cell, which lies in the start cluster or next to the start
+	 */
+	private int firstTarget(int start, int goal) {
+		int startNode = nodeCells.length;
+		int goalNode = startNode + 1;
+
+		int first = goalNode;
+		int second = goalNode;
+		while (parents[first] != startNode) {
+			second = first;
+			first = parents[first];
+		}
+
+		// The first entrance may be the start itself, then the path continues from the second node
+		if (nodeCells[first] != start) {
+			return nodeCells[first];
+		}
+		return second == goalNode ? goal : nodeCells[second];
+	}
+
+	/**
+	 * Runs a breadth-first search from a cell that does not leave its cluster.
+	 *
+	 * @param walls     the grid representing the walls in the world
+	 * @param cluster   the cluster to search
+	 * @param root      the cell index the search starts from
+	 * @param distances receives the distance of every cell from the root, -1 where it was not reached
+	 * @param from      receives the cell index each cell was reached from, or null if not needed
+	 */
+	private void searchCluster(WallGrid walls, int cluster, int root, int[] distances, int[] from) {
+		int left = cluster % clustersX * clusterSize;
+		int top = cluster / clustersX * clusterSize;
+		int right = Math.min(left + clusterSize, width);
+		int bottom = Math.min(top + clusterSize, height);
+
+		Arrays.fill(distances, -1);
+		distances[localIndex(root)] = 0;
+		int head = 0;
+		int tail = 0;
+		localQueue[tail++] = root;
+
+		while (head < tail) {
+			int current = localQueue[head++];
+			int x = current % width;
+			int y = current / width;
+			int distance = distances[localIndex(current)] + 1;
+			expandedNodes++;
+
+			for (Direction step : steps) {
+				int nextX = x + step.deltaX;
+				int nextY = y + step.deltaY;
+				if (nextX < left || nextX >= right || nextY < top || nextY >= bottom || walls.isWall(nextX, nextY)) {
+					continue;
+				}
+				int next = nextY * width + nextX;
+				if (distances[localIndex(next)] < 0) {
+					distances[localIndex(next)] = distance;
+					if (from != null) {
+						from[localIndex(next)] = current;
+					}
+					localQueue[tail++] = next;
+				}
+			}
+		}
+	}
+
+	///////////////////////////////////////////////////////////////////////////// Building
+
+	/**
+	 * Builds the abstract graph for the given walls: finds the entrances of every cluster, numbers them
+	 * cluster by cluster and links them. The clusters are handed to the workers in groups of
+	 * {@link #CLUSTERS_PER_TASK}, and every task reads the walls through a grid of its own if reading them
+	 * is not thread-safe, see {@link WallGrid#copyForThread()}.
+	 *
+	 * @param walls the grid representing the walls in the world
+	 */
+	private void build(WallGrid walls) {
+		width = walls.getWidth();
+		height = walls.getHeight();
+		clustersX = (width + clusterSize - 1) / clusterSize;
+		clustersY = (height + clusterSize - 1) / clusterSize;
+		int clusters = clustersX * clustersY;
+
+		// Both clusters at a border find the same stretches, so each can place its entrances on its own
+		int[][] entrances = new int[clusters][];
+		int tasks = (clusters + CLUSTERS_PER_TASK - 1) / CLUSTERS_PER_TASK;
+		IntStream.range(0, tasks).parallel().forEach(task -> {
+			WallGrid grid = walls.copyForThread();
+			int last = Math.min(clusters, (task + 1) * CLUSTERS_PER_TASK);
+			for (int cluster = task * CLUSTERS_PER_TASK; cluster < last; cluster++) {
+				entrances[cluster] = findEntrances(grid, cluster);
+			}
+		});
+
+		clusterStarts = new int[clusters + 1];
+		for (int cluster = 0; cluster < clusters; cluster++) {
+			clusterStarts[cluster + 1] = clusterStarts[cluster] + entrances[cluster].length;
+		}
+		nodeCells = new int[clusterStarts[clusters]];
+		for (int cluster = 0; cluster < clusters; cluster++) {
+			System.arraycopy(entrances[cluster], 0, nodeCells, clusterStarts[cluster], entrances[cluster].length);
+		}
+
+		// Every worker links the entrances of whole clusters, kept as lists per cluster until all are done
+		int[][] links = new int[clusters][];
+		IntStream.range(0, tasks).parallel().forEach(task -> {
+			WallGrid grid = walls.copyForThread();
+			int[] distances = new int[clusterSize * clusterSize];
+			int[] queue = new int[clusterSize * clusterSize];
+			int last = Math.min(clusters, (task + 1) * CLUSTERS_PER_TASK);
+			for (int cluster = task * CLUSTERS_PER_TASK; cluster < last; cluster++) {
+				links[cluster] = linkEntrances(grid, cluster, distances, queue);
+			}
+		});
+
+		// Flatten the lists into one edge array, the nodes are numbered in cluster order already
+		int nodes = nodeCells.length;
+		edgeStarts = new int[nodes + 1];
+		int edges = 0;
+		for (int cluster = 0; cluster < clusters; cluster++) {
+			edges += (links[cluster].length - (clusterStarts[cluster + 1] - clusterStarts[cluster])) / 2;
+		}
+		edgeTargets = new int[edges];
+		edgeCosts = new int[edges];
+
+		int edge = 0;
+		for (int cluster = 0; cluster < clusters; cluster++) {
+			int[] list = links[cluster];
+			int position = 0;
+			for (int node = clusterStarts[cluster]; node < clusterStarts[cluster + 1]; node++) {
+				edgeStarts[node] = edge;
+				int count = list[position++];
+				for (int i = 0; i < count; i++) {
+					edgeTargets[edge] = list[position++];
+					edgeCosts[edge++] = list[position++];
+				}
+			}
+		}
+		edgeStarts[nodes] = edge;
+
+		startDistances = new int[clusterSize * clusterSize];
+		startParents = new int[clusterSize * clusterSize];
+		goalDistances = new int[clusterSize * clusterSize];
+		localQueue = new int[clusterSize * clusterSize];
+		stamps = new int[nodes + 2];
+		costs = new int[nodes + 2];
+		parents = new int[nodes + 2];
+		goalLinkStamps = new int[nodes];
+		goalLinkCosts = new int[nodes];
+		search = 0;
+		Arrays.fill(paths, null);
+		builtFor = walls;
+	}
+
+	/**
+	 * Finds the entrances of a cluster. Every border is scanned for stretches of free cells whose
+	 * neighbours in the adjacent cluster are free as well. A short stretch gets an entrance in its middle,
+	 * a long one at both ends.
+	 *
+	 * @param walls   the grid representing the walls in the world
+	 * @param cluster the cluster
+	 * @return the cell indices of its entrances, each listed once
+	 */
+	private int[] findEntrances(WallGrid walls, int cluster) {
+		int left = cluster % clustersX * clusterSize;
+		int top = cluster / clustersX * clusterSize;
+		int right = Math.min(left + clusterSize, width) - 1;
+		int bottom = Math.min(top + clusterSize, height) - 1;
+
+		int[] found = new int[8];
+		int count = 0;
+
+		// Borders as the first cell, the direction along the border and the direction out of the cluster
+		int[][] borders = {
+				{left, top, 1, 0, 0, -1},
+				{left, bottom, 1, 0, 0, 1},
+				{left, top, 0, 1, -1, 0},
+				{right, top, 0, 1, 1, 0}
+		};
+		for (int[] border : borders) {
+			int length = border[2] == 1 ? right - left + 1 : bottom - top + 1;
+			int run = 0;
+			for (int i = 0; i <= length; i++) {
+				int x = border[0] + i * border[2];
+				int y = border[1] + i * border[3];
+				if (i < length && !walls.isWall(x, y) && !walls.isWall(x + border[4], y + border[5])) {
+					run++;
+					continue;
+				}
+				if (run == 0) {
+					continue;
+				}
+
+				// The stretch ended just before the current cell
+				int[] offsets = run < SPLIT_ENTRANCE_LENGTH ? new int[]{i - 1 - run / 2} : new int[]{i - run, i - 1};
+				for (int offset : offsets) {
+					int cell = (border[1] + offset * border[3]) * width + border[0] + offset * border[2];
+					if (indexOf(found, count, cell) < 0) {
+						if (count == found.length) {
+							found = Arrays.copyOf(found, 2 * count);
+						}
+						found[count++] = cell;
+					}
+				}
+				run = 0;
+			}
+		}
+
+		return Arrays.copyOf(found, count);
+	}
+
+	/**
+	 * Links the entrances of a cluster with each other by the lengths of the shortest paths inside the
+	 * cluster, and with the entrances they face in the adjacent clusters by one step.
+	 *
+	 * @param walls     the grid representing the walls in the world
+	 * @param cluster   the cluster
+	 * @param distances buffer for the distances inside the cluster
+	 * @param queue     buffer for the queue of the search
+	 * @return for every entrance in order the number of its links followed by the target node and the
+	 * length of each link
+	 */
+	private int[] linkEntrances(WallGrid walls, int cluster, int[] distances, int[] queue) {
+		int left = cluster % clustersX * clusterSize;
+		int top = cluster / clustersX * clusterSize;
+		int right = Math.min(left + clusterSize, width);
+		int bottom = Math.min(top + clusterSize, height);
+		int first = clusterStarts[cluster];
+		int last = clusterStarts[cluster + 1];
+
+		// Every entrance has at most one link to each other entrance and four across the borders
+		int nodes = last - first;
+		int[] list = new int[nodes * (2 * nodes + 7)];
+		int size = 0;
+		for (int node = first; node < last; node++) {
+			int countAt = size++;
+
+			// Shortest paths inside the cluster to all other entrances
+			Arrays.fill(distances, -1);
+			distances[localIndex(nodeCells[node])] = 0;
+			int head = 0;
+			int tail = 0;
+			queue[tail++] = nodeCells[node];
+			while (head < tail) {
+				int current = queue[head++];
+				int x = current % width;
+				int y = current / width;
+				for (Direction step : steps) {
+					int nextX = x + step.deltaX;
+					int nextY = y + step.deltaY;
+					if (nextX < left || nextX >= right || nextY < top || nextY >= bottom || walls.isWall(nextX, nextY)) {
+						continue;
+					}
+					int next = nextY * width + nextX;
+					if (distances[localIndex(next)] < 0) {
+						distances[localIndex(next)] = distances[localIndex(current)] + 1;
+						queue[tail++] = next;
+					}
+				}
+			}
+			for (int other = first; other < last; other++) {
+				int distance = distances[localIndex(nodeCells[other])];
+				if (other != node && distance > 0) {
+					list[size++] = other;
+					list[size++] = distance;
+				}
+			}
+
+			// Entrances facing this one across a border
+			int x = nodeCells[node] % width;
+			int y = nodeCells[node] / width;
+			for (Direction step : steps) {
+				int nextX = x + step.deltaX;
+				int nextY = y + step.deltaY;
+				boolean inside = nextX >= left && nextX < right && nextY >= top && nextY < bottom;
+				if (inside || walls.isWall(nextX, nextY)) {
+					continue;
+				}
+				int next = nextY * width + nextX;
+				int neighbour = clusterOf(next);
+				int index = indexOf(nodeCells, clusterStarts[neighbour], clusterStarts[neighbour + 1], next);
+				if (index >= 0) {
+					list[size++] = index;
+					list[size++] = 1;
+				}
+			}
+			list[countAt] = (size - countAt - 1) / 2;
+		}
+
+		return Arrays.copyOf(list, size);
+	}
+
+	///////////////////////////////////////////////////////////////////////////// Helpers
+
+	/**
+	 * Returns the cluster a cell lies in.
+	 *
+	 * @param cell the cell index
+	 * @return the cluster index
+	 */
+	private int clusterOf(int cell) {
+		return cell / width / clusterSize * clustersX + cell % width / clusterSize;
+	}
+
+	/**
+	 * Returns the position of a cell within its cluster.
+	 *
+	 * @param cell the cell index
+	 * @return the position, row by row from the top left corner of the cluster
+	 */
+	private int localIndex(int cell) {
+		return cell / width % clusterSize * clusterSize + cell % width % clusterSize;
+	}
+
+	/**
+	 * Returns the direction of a step between neighbouring cells.
+	 *
+	 * @param dx the difference of the X coordinates
+	 * @param dy the difference of the Y coordinates
+	 * @return the direction of the step
+	 */
+	private static Direction toDirection(int dx, int dy) {
+		if (dx < 0) {
+			return Direction.LEFT;
+		} else if (dx > 0) {
+			return Direction.RIGHT;
+		}
+		return dy < 0 ? Direction.UP : Direction.DOWN;
+	}
+
+	/**
+	 * Searches the first entries of an array for a value.
+	 *
+	 * @param values the array
+	 * @param count  the number of entries to search
+	 * @param value  the value
+	 * @return the index of the value, or -1 if it is not among the entries
+	 */
+	private static int indexOf(int[] values, int count, int value) {
+		return indexOf(values, 0, count, value);
+	}
+
+	/**
+	 * Searches a range of an array for a value.
+	 *
+	 * @param values the array
+	 * @param from   the first index to search
+	 * @param to     the index after the last one to search
+	 * @param value  the value
+	 * @return the index of the value, or -1 if it is not in the range
+	 */
+	private static int indexOf(int[] values, int from, int to, int value) {
+		for (int i = from; i < to; i++) {
+			if (values[i] == value) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public long getExpandedNodes() {
+		return expandedNodes;
+	}
+
+	@Override
+	public void resetExpandedNodes() {
+		expandedNodes = 0;
+	}
+}
@@ -0,0 +1,51 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * IntArrayStorage keeps the values in an {@code int[]} on the heap.
+ */
+public class IntArrayStorage implements IntStorage {
+
+	// The values
+	private final int[] values;
+
+	/**
+	 * Constructs a storage of the given number of values, all zero.
+	 *
+	 * @param size Number of values.
+	 */
+	public IntArrayStorage(int size) {
+		this.values = new int[size];
+	}
+
+	@Override
+	public int size() {
+		return values.length;
+	}
+
+	@Override
+	public int get(int index) {
+		return values[index];
+	}
+
+	@Override
+	public void set(int index, int value) {
+		values[index] = value;
+	}
+
+	@Override
+	public void fill(int value) {
+		Arrays.fill(values, value);
+	}
+
+	/**
+	 * Returns the array the values are kept in, so hot loops can read it without calling through the
+	 * {@link IntStorage} interface.
+	 *
+	 * @return the values, not copied
+	 */
+	int[] array() {
+		return values;
+	}
+}
@@ -0,0 +1,38 @@
+package model;
+
+/**
+ * IntStorage is a fixed-size sequence of 32-bit values that a {@link DistanceField} keeps its distances
+ * and search queue in. Implementations decide where the values live, e.g. in a heap array or off-heap.
+ */
+public interface IntStorage {
+
+	/**
+	 * Returns the number of values.
+	 *
+	 * @return Number of values in the storage.
+	 */
+	int size();
+
+	/**
+	 * Returns the value at the given index.
+	 *
+	 * @param index the index of the value
+	 * @return the value
+	 */
+	int get(int index);
+
+	/**
+	 * Replaces the value at the given index.
+	 *
+	 * @param index the index of the value
+	 * @param value the new value
+	 */
+	void set(int index, int value);
+
+	/**
+	 * Sets all values to the given one.
+	 *
+	 * @param value the new value of every index
+	 */
+	void fill(int value);
+}
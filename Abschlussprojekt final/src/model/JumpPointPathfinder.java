@@ -0,0 +1,156 @@
+package model;
+
+/**
+ * JumpPointPathfinder runs Jump Point Search for grids with four directions, an A* search that does not
+ * put every cell on the open list. From each expanded cell it scans in straight lines and only stops at
+ * jump points, cells where a shortest path may have to turn. Long corridors and open areas are therefore
+ * crossed without expanding the cells in between.
+ * <p>
+ * Shortest paths are made unique by preferring vertical moves before horizontal ones. A horizontal scan
+ * stops at a cell whose free vertical neighbour cannot be reached as cheaply through the cell behind it,
+ * because the vertical neighbour of that cell is a wall. A vertical scan stops at a cell from which a
+ * horizontal scan finds a jump point. Cells expanded after a horizontal move continue horizontally and
+ * turn only where they were forced to; cells expanded after a vertical move continue vertically and branch
+ * out to both sides. Every scan also stops at the goal.
+ */
+public class JumpPointPathfinder extends GridPathfinder {
+
+	// Open list, reused between searches
+	private final SearchHeap open = new SearchHeap(256);
+
+	// Goal of the running search
+	private int goal;
+
+	@Override
+	protected int search(WallGrid walls, int root, int goal) {
+		this.goal = goal;
+		int goalX = goal % width;
+		int goalY = goal / width;
+
+		open.clear();
+		relax(root, 0, root);
+		open.push(getPriority(0, root % width, root / width, goalX, goalY), root);
+
+		while (!open.isEmpty()) {
+			long priority = open.peekPriority();
+			int current = open.pop();
+
+			// Skip entries that were pushed again with a cheaper path
+			int cost = getCost(priority);
+			if (cost != costs[current]) {
+				continue;
+			}
+			if (current == goal) {
+				return parents[goal];
+			}
+			countExpansion();
+
+			int x = current % width;
+			int y = current / width;
+			int parent = parents[current];
+			int dx = Integer.signum(x - parent % width);
+			int dy = Integer.signum(y - parent / width);
+
+			if (current == root) {
+				// The root branches out in all directions
+				push(current, x, y, jumpVertical(walls, x, y, -1), goalX, goalY);
+				push(current, x, y, jumpVertical(walls, x, y, 1), goalX, goalY);
+				push(current, x, y, jumpHorizontal(walls, x, y, -1), goalX, goalY);
+				push(current, x, y, jumpHorizontal(walls, x, y, 1), goalX, goalY);
+			} else if (dx != 0) {
+				// Continue horizontally and turn where the cell behind cannot turn instead
+				push(current, x, y, jumpHorizontal(walls, x, y, dx), goalX, goalY);
+				if (!walls.isWall(x, y - 1) && walls.isWall(x - dx, y - 1)) {
+					push(current, x, y, jumpVertical(walls, x, y, -1), goalX, goalY);
+				}
+				if (!walls.isWall(x, y + 1) && walls.isWall(x - dx, y + 1)) {
+					push(current, x, y, jumpVertical(walls, x, y, 1), goalX, goalY);
+				}
+			} else {
+				// Continue vertically and branch out to both sides
+				push(current, x, y, jumpVertical(walls, x, y, dy), goalX, goalY);
+				push(current, x, y, jumpHorizontal(walls, x, y, -1), goalX, goalY);
+				push(current, x, y, jumpHorizontal(walls, x, y, 1), goalX, goalY);
+			}
+		}
+
+		return -1;
+	}
+
+	/**
+	 * Puts a jump point found from the current cell on the open list, unless none was found or it is
+	 * already known with a path at most as long.
+	 *
+	 * @param current the index of the expanded cell
+	 * @param x       the X coordinate of the expanded cell
+	 * @param y       the Y coordinate of the expanded cell
+	 * @param jump    the index of the jump point, or -1 if the scan found none
+	 * @param goalX   the X coordinate of the goal
+	 * @param goalY   the Y coordinate of the goal
+	 */
+	private void push(int current, int x, int y, int jump, int goalX, int goalY) {
+		if (jump < 0) {
+			return;
+		}
+		int jumpX = jump % width;
+		int jumpY = jump / width;
+		int cost = costs[current] + Math.abs(jumpX - x) + Math.abs(jumpY - y);
+		if (relax(jump, cost, current)) {
+			open.push(getPriority(cost, jumpX, jumpY, goalX, goalY), jump);
+		}
+	}
+
+	/**
+	 * Scans horizontally from a cell for the next jump point.
+	 *
+	 * @param walls the grid representing the walls in the world
+	 * @param x     the X coordinate of the cell the scan starts next to
+	 * @param y     the Y coordinate of the row
+	 * @param dx    -1 to scan to the left, 1 to scan to the right
+	 * @return the index of the jump point, or -1 if the scan runs into a wall first
+	 */
+	private int jumpHorizontal(WallGrid walls, int x, int y, int dx) {
+		while (true) {
+			x += dx;
+			if (walls.isWall(x, y)) {
+				return -1;
+			}
+			int cell = y * width + x;
+			if (cell == goal) {
+				return cell;
+			}
+
+			// A free vertical neighbour is forced if the cell behind cannot reach it as cheaply
+			if ((!walls.isWall(x, y - 1) && walls.isWall(x - dx, y - 1))
+					|| (!walls.isWall(x, y + 1) && walls.isWall(x - dx, y + 1))) {
+				return cell;
+			}
+		}
+	}
+
+	/**
+	 * Scans vertically from a cell for the next jump point, scanning horizontally from every cell on
+	 * the way.
+	 *
+	 * @param walls the grid representing the walls in the world
+	 * @param x     the X coordinate of the column
+	 * @param y     the Y coordinate of the cell the scan starts next to
+	 * @param dy    -1 to scan upward, 1 to scan downward
+	 * @return the index of the jump point, or -1 if the scan runs into a wall first
+	 */
+	private int jumpVertical(WallGrid walls, int x, int y, int dy) {
+		while (true) {
+			y += dy;
+			if (walls.isWall(x, y)) {
+				return -1;
+			}
+			int cell = y * width + x;
+			if (cell == goal) {
+				return cell;
+			}
+			if (jumpHorizontal(walls, x, y, -1) >= 0 || jumpHorizontal(walls, x, y, 1) >= 0) {
+				return cell;
+			}
+		}
+	}
+}
@@ -0,0 +1,85 @@
+package model;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * KruskalGenerator carves a maze with Kruskal's algorithm: it visits the passages between neighbouring
+ * rooms in random order and opens each one that joins two rooms not yet connected. Connectivity is
+ * tracked by a union-find structure with path halving and union by size, so every check takes nearly
+ * constant time. The mazes have many short dead ends.
+ */
+public class KruskalGenerator extends MazeGenerator {
+
+	@Override
+	protected void carve(WallGrid walls, int roomsX, int roomsY, SplittableRandom random) {
+		int rooms = roomsX * roomsY;
+
+		// Passage 2 * r leads right from room r, passage 2 * r + 1 leads down
+		int[] passages = new int[2 * rooms];
+		int count = 0;
+		for (int room = 0; room < rooms; room++) {
+			openRoom(walls, roomsX, room);
+			if (room % roomsX < roomsX - 1) {
+				passages[count++] = 2 * room;
+			}
+			if (room / roomsX < roomsY - 1) {
+				passages[count++] = 2 * room + 1;
+			}
+		}
+
+		// Fisher-Yates shuffle
+		for (int i = count - 1; i > 0; i--) {
+			int j = random.nextInt(i + 1);
+			int passage = passages[i];
+			passages[i] = passages[j];
+			passages[j] = passage;
+		}
+
+		// Parent of every room, roots hold the negated size of their set
+		int[] parent = new int[rooms];
+		Arrays.fill(parent, -1);
+
+		int joins = 0;
+		for (int i = 0; i < count && joins < rooms - 1; i++) {
+			int room = passages[i] >>> 1;
+			int other = (passages[i] & 1) == 0 ? room + 1 : room + roomsX;
+
+			int a = find(parent, room);
+			int b = find(parent, other);
+			if (a == b) {
+				continue;
+			}
+
+			// Hang the smaller set below the larger one
+			if (parent[a] > parent[b]) {
+				int swap = a;
+				a = b;
+				b = swap;
+			}
+			parent[a] += parent[b];
+			parent[b] = a;
+
+			openPassage(walls, roomsX, room, other);
+			joins++;
+		}
+	}
+
+	/**
+	 * Returns the representative of the set of a room, halving the path to it on the way.
+	 *
+	 * @param parent the parent of every room, negative for representatives
+	 * @param room   the number of the room
+	 * @return the number of the representative room
+	 */
+	private static int find(int[] parent, int room) {
+		while (parent[room] >= 0) {
+			int up = parent[room];
+			if (parent[up] >= 0) {
+				parent[room] = parent[up];
+			}
+			room = up;
+		}
+		return room;
+	}
+}
@@ -0,0 +1,45 @@
+package model;
+
+/**
+ * LongArrayStorage keeps the words in a {@code long[]} on the heap. It is the storage of every grid
+ * that is built in memory.
+ */
+public class LongArrayStorage implements LongStorage {
+
+	// The words
+	private final long[] words;
+
+	/**
+	 * Constructs a storage of the given number of words, all zero.
+	 *
+	 * @param size Number of words.
+	 */
+	public LongArrayStorage(int size) {
+		this.words = new long[size];
+	}
+
+	@Override
+	public int size() {
+		return words.length;
+	}
+
+	@Override
+	public long get(int index) {
+		return words[index];
+	}
+
+	@Override
+	public void set(int index, long value) {
+		words[index] = value;
+	}
+
+	/**
+	 * Returns the array the words are kept in, so hot loops can read it without calling through the
+	 * {@link LongStorage} interface.
+	 *
+	 * @return the words, not copied
+	 */
+	long[] array() {
+		return words;
+	}
+}
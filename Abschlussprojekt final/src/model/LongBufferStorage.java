@@ -0,0 +1,46 @@
+package model;
+
+import java.nio.LongBuffer;
+
+/**
+ * LongBufferStorage reads the words from a {@link LongBuffer}, usually a view of a memory-mapped file.
+ * The words are not copied: reads go straight to the buffer, and for a mapped file the operating
+ * system pages them in on first access, so no heap is used for them.
+ */
+public class LongBufferStorage implements LongStorage {
+
+	// The words, indexed from zero
+	private final LongBuffer words;
+
+	/**
+	 * Constructs a storage backed by the words of the given buffer from its current position to its limit.
+	 *
+	 * @param words Buffer holding the words.
+	 */
+	public LongBufferStorage(LongBuffer words) {
+		this.words = words.slice();
+	}
+
+	@Override
+	public int size() {
+		return words.capacity();
+	}
+
+	@Override
+	public long get(int index) {
+		return words.get(index);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @throws UnsupportedOperationException if the buffer is read-only, e.g. a file mapped for reading
+	 */
+	@Override
+	public void set(int index, long value) {
+		if (words.isReadOnly()) {
+			throw new UnsupportedOperationException("Storage is read-only");
+		}
+		words.put(index, value);
+	}
+}
@@ -0,0 +1,32 @@
+package model;
+
+/**
+ * LongStorage is a fixed-size sequence of 64-bit words that a {@link WallGrid} keeps its wall bits in.
+ * Implementations decide where the words live, e.g. in a heap array or in a memory-mapped file.
+ */
+public interface LongStorage {
+
+	/**
+	 * Returns the number of words.
+	 *
+	 * @return Number of words in the storage.
+	 */
+	int size();
+
+	/**
+	 * Returns the word at the given index.
+	 *
+	 * @param index the index of the word
+	 * @return the word
+	 */
+	long get(int index);
+
+	/**
+	 * Replaces the word at the given index.
+	 *
+	 * @param index the index of the word
+	 * @param value the new word
+	 * @throws UnsupportedOperationException if the storage is read-only
+	 */
+	void set(int index, long value);
+}
@@ -0,0 +1,390 @@
+package model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * MazeFile reads and writes levels in a compact binary format, so mazes no longer have to be compiled
+ * into the {@link World} constructor. All numbers are little-endian:
+ * <pre>
+ * int    magic "LABY" and format version
+ * int    width, height
+ * int    startX, startY, endX, endY
+ * 3 x    int count, then count pairs of int x, y: the pursuer spawns of easy, medium and difficult mode
+ * pad    zero bytes up to the next multiple of 8
+ * long   wall bits, row after row, laid out exactly like a {@link WallGrid}
+ * </pre>
+ * Loading maps the file into memory and wraps the wall words without copying them, so opening even a
+ * huge maze is near-instant and takes no heap for the walls: the operating system pages them in when
+ * they are first touched. Mazes too big to be mapped at once are loaded in chunks with
+ * {@link #loadChunked(Path, int)} instead. The walls of a loaded file are read-only.
+ */
+public class MazeFile implements Closeable {
+
+	/**
+	 * The first four bytes of every maze file, "LABY" in ASCII.
+	 */
+	public static final int MAGIC = 0x5942414C;
+
+	/**
+	 * Version of the format written by {@link #save(World, Path)}.
+	 */
+	public static final int VERSION = 1;
+
+	// Byte order of all numbers in the file
+	private static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+
+	// Size of the buffer the walls are written through
+	private static final int WRITE_BUFFER_SIZE = 1 << 16;
+
+	// Number of bytes read to parse the header of a file loaded in chunks
+	private static final int HEADER_READ_SIZE = 4096;
+
+	// Dimensions of the maze
+	private final int width;
+	private final int height;
+
+	// Starting and ending coordinates
+	private final int startX;
+	private final int startY;
+	private final int endX;
+	private final int endY;
+
+	// Spawn cells of the pursuers per mode, as x and y of pursuer 1, then of pursuer 2 and so on
+	private final int[][] spawns;
+
+	// Walls backed by the mapped file or by chunks read from it
+	private final WallGrid walls;
+
+	// Storage of the walls of a level loaded in chunks, also closes the file; null if the file is mapped
+	private ChunkedLongStorage chunks;
+
+	/**
+	 * Opens the storage of the wall words of a file once their position is known.
+	 */
+	private interface StorageOpener {
+		LongStorage open(long offset, int wordsPerRow, int rows) throws IOException;
+	}
+
+	/**
+	 * Constructs a level from its parts.
+	 */
+	private MazeFile(int width, int height, int startX, int startY, int endX, int endY, int[][] spawns, WallGrid walls) {
+		this.width = width;
+		this.height = height;
+		this.startX = startX;
+		this.startY = startY;
+		this.endX = endX;
+		this.endY = endY;
+		this.spawns = spawns;
+		this.walls = walls;
+	}
+
+	/**
+	 * Opens a maze file by mapping it into memory.
+	 *
+	 * @param path the file to open
+	 * @return the level stored in the file
+	 * @throws IOException if the file cannot be read, is not a valid maze file or is larger than 2 GB
+	 */
+	public static MazeFile load(Path path) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			if (channel.size() > Integer.MAX_VALUE) {
+				throw new IOException("Maze file is too large to be mapped: " + path);
+			}
+
+			// The mapping stays valid after the channel is closed
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			buffer.order(ORDER);
+
+			return read(buffer, path, (offset, wordsPerRow, rows) -> {
+				int words = wordsPerRow * rows;
+				if (buffer.capacity() < offset + (long) words * Long.BYTES) {
+					throw new IOException("Maze file is truncated: " + path);
+				}
+				buffer.position((int) offset).limit((int) offset + words * Long.BYTES);
+				return new LongBufferStorage(buffer.slice().order(ORDER).asLongBuffer());
+			});
+		}
+	}
+
+	/**
+	 * Opens a maze file of any size without loading its walls. The walls are read in chunks when first
+	 * needed, and at most the given number of chunks of {@link ChunkedLongStorage#CHUNK_ROWS} rows of up
+	 * to 1024 cells is kept in memory per grid. The file stays open until the level is closed. The grid
+	 * returned by {@link #getWalls()} must only be used by one thread; every world playing the level gets
+	 * a grid of its own from {@link #openWalls()}.
+	 *
+	 * @param path      the file to open
+	 * @param maxChunks the largest number of chunks kept in memory at once
+	 * @return the level stored in the file
+	 * @throws IOException if the file cannot be read or is not a valid maze file
+	 */
+	public static MazeFile loadChunked(Path path, int maxChunks) throws IOException {
+		FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+		try {
+			ByteBuffer header = ByteBuffer.allocate((int) Math.min(channel.size(), HEADER_READ_SIZE)).order(ORDER);
+			while (header.hasRemaining() && channel.read(header) >= 0) {
+				// Keep reading until the header is complete
+			}
+			header.flip();
+
+			long size = channel.size();
+			ChunkedLongStorage[] storage = new ChunkedLongStorage[1];
+			MazeFile level = read(header, path, (offset, wordsPerRow, rows) -> {
+				if (size < offset + (long) wordsPerRow * rows * Long.BYTES) {
+					throw new IOException("Maze file is truncated: " + path);
+				}
+				storage[0] = new ChunkedLongStorage(channel, offset, wordsPerRow, rows, maxChunks);
+				return storage[0];
+			});
+			level.chunks = storage[0];
+			return level;
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Parses the header of a maze file and opens the storage of its wall words.
+	 *
+	 * @param buffer the start of the file
+	 * @param path   the file, for error messages
+	 * @param opener opens the storage of the wall words
+	 * @return the level stored in the file
+	 * @throws IOException if the file is not a valid maze file
+	 */
+	private static MazeFile read(ByteBuffer buffer, Path path, StorageOpener opener) throws IOException {
+		try {
+			return readHeader(buffer, path, opener);
+		} catch (BufferUnderflowException e) {
+			throw new IOException("Maze file is truncated: " + path, e);
+		}
+	}
+
+	/**
+	 * Parses the header like {@link #read}, letting a header that ends early underflow the buffer.
+	 */
+	private static MazeFile readHeader(ByteBuffer buffer, Path path, StorageOpener opener) throws IOException {
+		if (buffer.getInt() != MAGIC) {
+			throw new IOException("Not a maze file: " + path);
+		}
+		int version = buffer.getInt();
+		if (version != VERSION) {
+			throw new IOException("Unsupported maze file version " + version + ": " + path);
+		}
+
+		int width = buffer.getInt();
+		int height = buffer.getInt();
+		int words;
+		try {
+			words = WallGrid.getWordCount(width, height);
+		} catch (IllegalArgumentException e) {
+			throw new IOException("Invalid maze dimensions in " + path, e);
+		}
+
+		int startX = buffer.getInt();
+		int startY = buffer.getInt();
+		int endX = buffer.getInt();
+		int endY = buffer.getInt();
+		checkCell(startX, startY, width, height, path);
+		checkCell(endX, endY, width, height, path);
+
+		int[][] spawns = new int[3][];
+		for (int mode = 1; mode <= 3; mode++) {
+			int count = buffer.getInt();
+			if (count != mode + 1) {
+				throw new IOException("Mode " + mode + " needs " + (mode + 1) + " pursuers, not " + count + ": " + path);
+			}
+
+			spawns[mode - 1] = new int[2 * count];
+			for (int i = 0; i < 2 * count; i += 2) {
+				spawns[mode - 1][i] = buffer.getInt();
+				spawns[mode - 1][i + 1] = buffer.getInt();
+				checkCell(spawns[mode - 1][i], spawns[mode - 1][i + 1], width, height, path);
+			}
+		}
+
+		// The walls start at the next multiple of 8 bytes
+		LongStorage storage = opener.open((buffer.position() + 7) & ~7, words / height, height);
+		return new MazeFile(width, height, startX, startY, endX, endY, spawns, new WallGrid(width, height, storage));
+	}
+
+	/**
+	 * Checks that a cell from the header lies inside the maze.
+	 *
+	 * @throws IOException if the cell lies outside
+	 */
+	private static void checkCell(int x, int y, int width, int height, Path path) throws IOException {
+		if (x < 0 || x >= width || y < 0 || y >= height) {
+			throw new IOException("Cell outside the maze: (" + x + ", " + y + ") in " + path);
+		}
+	}
+
+	/**
+	 * Writes the maze of a world with its start, end and pursuer spawns to a file.
+	 *
+	 * @param world the World object whose level is saved
+	 * @param path  the file to write, replaced if it exists
+	 * @throws IOException if the file cannot be written
+	 */
+	public static void save(World world, Path path) throws IOException {
+		WallGrid walls = world.getWalls();
+
+		int pairs = 0;
+		for (int mode = 1; mode <= 3; mode++) {
+			pairs += world.getSpawns(mode).length / 2;
+		}
+		int headerSize = (Integer.BYTES * (8 + 3 + 2 * pairs) + 7) & ~7;
+
+		ByteBuffer header = ByteBuffer.allocate(headerSize).order(ORDER);
+		header.putInt(MAGIC).putInt(VERSION);
+		header.putInt(world.getWidth()).putInt(world.getHeight());
+		header.putInt(world.getStartX()).putInt(world.getStartY());
+		header.putInt(world.getEndX()).putInt(world.getEndY());
+		for (int mode = 1; mode <= 3; mode++) {
+			int[] cells = world.getSpawns(mode);
+			header.putInt(cells.length / 2);
+			for (int cell : cells) {
+				header.putInt(cell);
+			}
+		}
+		header.position(0);
+
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			writeFully(channel, header);
+
+			ByteBuffer buffer = ByteBuffer.allocate(WRITE_BUFFER_SIZE).order(ORDER);
+			for (int y = 0; y < walls.getHeight(); y++) {
+				for (int word = 0; word < walls.getWordsPerRow(); word++) {
+					if (!buffer.hasRemaining()) {
+						buffer.flip();
+						writeFully(channel, buffer);
+						buffer.clear();
+					}
+					buffer.putLong(walls.getWord(y, word));
+				}
+			}
+			buffer.flip();
+			writeFully(channel, buffer);
+		}
+	}
+
+	/**
+	 * Writes all remaining bytes of a buffer to a channel.
+	 */
+	private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+	}
+
+	///////////////////////////////////////////////////////////////////////////// Getters
+
+	/**
+	 * Returns the width of the maze.
+	 *
+	 * @return Width of the maze.
+	 */
+	public int getWidth() {
+		return width;
+	}
+
+	/**
+	 * Returns the height of the maze.
+	 *
+	 * @return Height of the maze.
+	 */
+	public int getHeight() {
+		return height;
+	}
+
+	/**
+	 * Returns the starting X coordinate.
+	 *
+	 * @return Starting X coordinate.
+	 */
+	public int getStartX() {
+		return startX;
+	}
+
+	/**
+	 * Returns the starting Y coordinate.
+	 *
+	 * @return Starting Y coordinate.
+	 */
+	public int getStartY() {
+		return startY;
+	}
+
+	/**
+	 * Returns the ending X coordinate.
+	 *
+	 * @return Ending X coordinate.
+	 */
+	public int getEndX() {
+		return endX;
+	}
+
+	/**
+	 * Returns the ending Y coordinate.
+	 *
+	 * @return Ending Y coordinate.
+	 */
+	public int getEndY() {
+		return endY;
+	}
+
+	/**
+	 * Returns the spawn cells of the pursuers in the given mode.
+	 *
+	 * @param mode 1 for easy, 2 for medium, 3 for difficult mode
+	 * @return a copy of the spawn cells, as x and y of pursuer 1, then of pursuer 2 and so on
+	 */
+	public int[] getSpawns(int mode) {
+		return spawns[mode - 1].clone();
+	}
+
+	/**
+	 * Returns the read-only walls, backed by the mapped file or by chunks read from it.
+	 *
+	 * @return Grid indicating wall positions.
+	 */
+	public WallGrid getWalls() {
+		return walls;
+	}
+
+	/**
+	 * Returns walls that one world can read on its own thread. A mapped file is read without any state,
+	 * so all callers share the grid of {@link #getWalls()}. A level loaded in chunks keeps a cache of
+	 * chunks per grid that reading fills, so every call returns a new grid with an empty cache of its own
+	 * that reads the same file.
+	 *
+	 * @return Grid indicating wall positions.
+	 */
+	public WallGrid openWalls() {
+		return walls.copyForThread();
+	}
+
+	/**
+	 * Closes the file of a level loaded in chunks. A mapped file needs no closing; its memory is
+	 * released once the level is no longer used.
+	 *
+	 * @throws IOException if the file cannot be closed
+	 */
+	@Override
+	public void close() throws IOException {
+		if (chunks != null) {
+			chunks.close();
+		}
+	}
+}
@@ -0,0 +1,89 @@
+package model;
+
+import java.util.SplittableRandom;
+
+/**
+ * A MazeGenerator fills a {@link WallGrid} of any size with a perfect maze, i.e. a maze in which every
+ * free cell can be reached from every other one on exactly one path.
+ * <p>
+ * Mazes are laid out on a lattice: the cells at odd coordinates are rooms and the cells between two
+ * neighbouring rooms are passages. The grid starts out as solid wall, rooms are opened, and a subclass
+ * decides which passages to open by carving a spanning tree over the rooms. With an even width or height
+ * the last column or row stays wall.
+ */
+public abstract class MazeGenerator {
+
+	/**
+	 * Fills the given grid with a maze. The same seed always produces the same maze.
+	 *
+	 * @param walls  the grid to fill, its previous content is discarded
+	 * @param random the random number generator the maze is drawn from
+	 * @throws IllegalArgumentException if the grid is smaller than 3x3 and therefore holds no room, or has
+	 *                                  too many rooms to number them with an {@code int}
+	 */
+	public final void generate(WallGrid walls, SplittableRandom random) {
+		if (walls.getWidth() < 3 || walls.getHeight() < 3) {
+			throw new IllegalArgumentException("Grid is too small for a maze: " + walls.getWidth() + "x" + walls.getHeight());
+		}
+		if ((long) getRoomsX(walls) * getRoomsY(walls) > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Grid is too large for a maze: " + walls.getWidth() + "x" + walls.getHeight());
+		}
+
+		walls.fill(true);
+		carve(walls, getRoomsX(walls), getRoomsY(walls), random);
+	}
+
+	/**
+	 * Opens the rooms and passages of a spanning tree over all rooms. Rooms are numbered row by row,
+	 * room {@code r} lying at the cell (2 * (r % roomsX) + 1, 2 * (r / roomsX) + 1).
+	 *
+	 * @param walls  the grid to carve into, solid wall when called
+	 * @param roomsX the number of rooms per row
+	 * @param roomsY the number of rows of rooms
+	 * @param random the random number generator the maze is drawn from
+	 */
+	protected abstract void carve(WallGrid walls, int roomsX, int roomsY, SplittableRandom random);
+
+	/**
+	 * Returns the number of rooms per row of a maze in the given grid.
+	 *
+	 * @param walls the grid of the maze
+	 * @return the number of rooms per row
+	 */
+	public static int getRoomsX(WallGrid walls) {
+		return (walls.getWidth() - 1) / 2;
+	}
+
+	/**
+	 * Returns the number of rows of rooms of a maze in the given grid.
+	 *
+	 * @param walls the grid of the maze
+	 * @return the number of rows of rooms
+	 */
+	public static int getRoomsY(WallGrid walls) {
+		return (walls.getHeight() - 1) / 2;
+	}
+
+	/**
+	 * Opens a room.
+	 *
+	 * @param walls  the grid to carve into
+	 * @param roomsX the number of rooms per row
+	 * @param room   the number of the room
+	 */
+	protected static void openRoom(WallGrid walls, int roomsX, int room) {
+		walls.setWall(2 * (room % roomsX) + 1, 2 * (room / roomsX) + 1, false);
+	}
+
+	/**
+	 * Opens the passage between two neighbouring rooms. The rooms themselves are not opened.
+	 *
+	 * @param walls  the grid to carve into
+	 * @param roomsX the number of rooms per row
+	 * @param room   the number of one room
+	 * @param other  the number of a neighbouring room
+	 */
+	protected static void openPassage(WallGrid walls, int roomsX, int room, int other) {
+		walls.setWall(room % roomsX + other % roomsX + 1, room / roomsX + other / roomsX + 1, false);
+	}
+}
@@ -0,0 +1,207 @@
+package model;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * NextHopTable precomputes, for every pair of free cells, the first step of a shortest path from one to
+ * the other. The maze does not change while playing, so after building the table a pursuer move is a
+ * single lookup. Each entry takes two bits (up, down, left or right) packed into a {@code long[]}.
+ * <p>
+ * The table grows with the square of the number of free cells, so it is only built for mazes with up to
+ * {@link #MAX_FREE_CELLS} free cells; larger mazes keep using an on-line search.
+ */
+public class NextHopTable {
+
+	/**
+	 * Largest number of free cells a table is built for, which takes 4 MB.
+	 */
+	public static final int MAX_FREE_CELLS = 4096;
+
+	// Directions in the order of their two-bit codes
+	private static final Direction[] steps = {Direction.UP, Direction.DOWN, Direction.LEFT, Direction.RIGHT};
+
+	// Number of targets handed to a worker at once
+	private static final int TARGETS_PER_TASK = 64;
+
+	// Dimensions of the world grid
+	private final int width;
+	private final int height;
+
+	// Number of free cells, which are numbered from 0 to freeCells - 1
+	private final int freeCells;
+
+	// Free cell number of each cell (-1 for walls) and cell index of each free cell number
+	private final int[] freeNumber;
+	private final int[] cellIndex;
+
+	// Free cell numbers of the up, down, left and right neighbour of each free cell (-1 if blocked)
+	private final int[] neighbours;
+
+	// Connected area of each free cell, cells in different areas cannot reach each other
+	private final int[] area;
+
+	// Two-bit step codes, one row per target, each row starting at a new word
+	private final int wordsPerTarget;
+	private final long[] table;
+
+	/**
+	 * Returns whether a table can be built for the given walls.
+	 *
+	 * @param walls the grid representing the walls in the world
+	 * @return true if the maze has at most {@link #MAX_FREE_CELLS} free cells, otherwise false
+	 */
+	public static boolean canBuild(WallGrid walls) {
+		return walls.countFree() <= MAX_FREE_CELLS;
+	}
+
+	/**
+	 * Builds the table for the given walls. One breadth-first search is run from every free cell,
+	 * spread over all available cores.
+	 *
+	 * @param walls the grid representing the walls in the world
+	 * @throws IllegalArgumentException if the maze has more than {@link #MAX_FREE_CELLS} free cells
+	 */
+	public NextHopTable(WallGrid walls) {
+		if (!canBuild(walls)) {
+			throw new IllegalArgumentException("Too many free cells for a next-hop table: " + walls.countFree());
+		}
+
+		this.width = walls.getWidth();
+		this.height = walls.getHeight();
+		this.freeCells = (int) walls.countFree();
+
+		// Number the free cells
+		this.freeNumber = new int[width * height];
+		this.cellIndex = new int[freeCells];
+		int count = 0;
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				if (walls.isWall(x, y)) {
+					freeNumber[y * width + x] = -1;
+				} else {
+					freeNumber[y * width + x] = count;
+					cellIndex[count++] = y * width + x;
+				}
+			}
+		}
+
+		// Link every free cell to its free neighbours
+		this.neighbours = new int[freeCells * 4];
+		for (int i = 0; i < freeCells; i++) {
+			int x = cellIndex[i] % width;
+			int y = cellIndex[i] / width;
+			for (int k = 0; k < 4; k++) {
+				int newX = x + steps[k].deltaX;
+				int newY = y + steps[k].deltaY;
+				neighbours[i * 4 + k] = walls.isWall(newX, newY) ? -1 : freeNumber[newY * width + newX];
+			}
+		}
+
+		this.area = findAreas();
+
+		this.wordsPerTarget = (freeCells + 31) >>> 5;
+		this.table = new long[wordsPerTarget * freeCells];
+
+		// Every worker fills whole rows, so no two threads write the same word
+		int tasks = (freeCells + TARGETS_PER_TASK - 1) / TARGETS_PER_TASK;
+		IntStream.range(0, tasks).parallel().forEach(task -> {
+			int[] distances = new int[freeCells];
+			int[] queue = new int[freeCells];
+			int last = Math.min(freeCells, (task + 1) * TARGETS_PER_TASK);
+			for (int target = task * TARGETS_PER_TASK; target < last; target++) {
+				fillRow(target, distances, queue);
+			}
+		});
+	}
+
+	/**
+	 * Labels the connected areas of free cells.
+	 *
+	 * @return the area of each free cell
+	 */
+	private int[] findAreas() {
+		int[] areas = new int[freeCells];
+		Arrays.fill(areas, -1);
+		int[] stack = new int[freeCells];
+
+		int areaCount = 0;
+		for (int start = 0; start < freeCells; start++) {
+			if (areas[start] >= 0) {
+				continue;
+			}
+
+			int size = 0;
+			stack[size++] = start;
+			areas[start] = areaCount;
+			while (size > 0) {
+				int current = stack[--size];
+				for (int k = 0; k < 4; k++) {
+					int neighbour = neighbours[current * 4 + k];
+					if (neighbour >= 0 && areas[neighbour] < 0) {
+						areas[neighbour] = areaCount;
+						stack[size++] = neighbour;
+					}
+				}
+			}
+			areaCount++;
+		}
+
+		return areas;
+	}
+
+	/**
+	 * Runs a breadth-first search from the given target and stores the first step toward it for every
+	 * free cell. When a cell is reached from a neighbour, the step back to that neighbour lies on a
+	 * shortest path to the target.
+	 *
+	 * @param target    the free cell number of the target
+	 * @param distances scratch array with one entry per free cell
+	 * @param queue     scratch array with one entry per free cell
+	 */
+	private void fillRow(int target, int[] distances, int[] queue) {
+		Arrays.fill(distances, -1);
+		distances[target] = 0;
+
+		int row = target * wordsPerTarget;
+		int head = 0;
+		int tail = 0;
+		queue[tail++] = target;
+
+		while (head < tail) {
+			int current = queue[head++];
+			for (int k = 0; k < 4; k++) {
+				int neighbour = neighbours[current * 4 + k];
+				if (neighbour >= 0 && distances[neighbour] < 0) {
+					distances[neighbour] = distances[current] + 1;
+					queue[tail++] = neighbour;
+
+					// Opposite step: UP <-> DOWN, LEFT <-> RIGHT
+					long code = k ^ 1;
+					table[row + (neighbour >>> 5)] |= code << ((neighbour & 31) << 1);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the direction of the first step on a shortest path between two cells.
+	 *
+	 * @param fromX the X coordinate of the cell to start from
+	 * @param fromY the Y coordinate of the cell to start from
+	 * @param toX   the X coordinate of the target cell
+	 * @param toY   the Y coordinate of the target cell
+	 * @return the next step toward the target, or {@link Direction#NONE} if the cells are equal,
+	 * one of them is a wall or there is no path
+	 */
+	public Direction nextDirection(int fromX, int fromY, int toX, int toY) {
+		int from = freeNumber[fromY * width + fromX];
+		int to = freeNumber[toY * width + toX];
+		if (from < 0 || to < 0 || from == to || area[from] != area[to]) {
+			return Direction.NONE;
+		}
+
+		long word = table[to * wordsPerTarget + (from >>> 5)];
+		return steps[(int) (word >>> ((from & 31) << 1)) & 3];
+	}
+}
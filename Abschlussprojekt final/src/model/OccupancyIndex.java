@@ -0,0 +1,322 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * OccupancyIndex counts how many entities stand on each cell, so asking whether a cell is occupied takes
+ * constant time no matter how many entities there are. It is kept up to date as the entities move.
+ * <p>
+ * A maze with many entities for its size gets a one-byte counter per cell. Otherwise, and in any maze of
+ * more than {@link #MAX_DENSE_CELLS} cells, like those loaded with {@link MazeFile#loadChunked}, only the
+ * occupied cells are stored, in an open-addressing hash table whose size depends on the number of entities
+ * and not on the size of the maze, so a few pursuers in a huge maze take a few hundred bytes. The same table
+ * takes the entities beyond the 255 a cell counter holds. It is at most half full, and once it is large
+ * enough for all entities, moving them allocates nothing.
+ */
+public class OccupancyIndex {
+
+	/**
+	 * Largest maze that gets a counter per cell.
+	 */
+	public static final int MAX_DENSE_CELLS = 1 << 24;
+
+	/**
+	 * Largest number of cells per entity for which the maze gets a counter per cell. The counters then
+	 * take at most about ten times the memory of a table of the entities, and save hashing on every move.
+	 */
+	public static final int MAX_DENSE_CELLS_PER_ENTITY = 256;
+
+	// Largest count a cell counter holds, further entities on the cell are counted in the table
+	private static final int MAX_CELL_COUNT = 0xFF;
+
+	// Key of an empty slot, the keys of cells inside the maze are never negative
+	private static final long EMPTY = -1;
+
+	// Smallest number of slots
+	private static final int MIN_SLOTS = 16;
+
+	// Largest number of slots, the largest power of two an array can hold
+	private static final int MAX_SLOTS = 1 << 30;
+
+	// Dimensions of the maze
+	private final int width;
+	private final int height;
+
+	// Number of entities per cell in reading order as unsigned bytes, null while only the table is used
+	private byte[] cells;
+
+	// Keys of the occupied cells, or of the full cell counters, EMPTY for free slots
+	private long[] keys;
+
+	// Number of entities on the cell in the same slot
+	private int[] counts;
+
+	// Number of bits of a slot index
+	private int bits;
+
+	// Number of occupied cells in the table
+	private int size = 0;
+
+	/**
+	 * Constructs an empty index for a maze of the given size with room for the given number of entities.
+	 *
+	 * @param width    Width of the maze.
+	 * @param height   Height of the maze.
+	 * @param expected Number of entities that fit before the index has to grow.
+	 */
+	public OccupancyIndex(int width, int height, int expected) {
+		this.width = width;
+		this.height = height;
+		if (isDense(expected)) {
+			cells = new byte[width * height];
+			allocate(MIN_SLOTS);
+		} else {
+			allocate(getSlotCount(expected));
+		}
+	}
+
+	/**
+	 * Returns whether the given number of entities is enough for the maze to get a counter per cell.
+	 */
+	private boolean isDense(int entities) {
+		long cellCount = (long) width * height;
+		return cellCount <= MAX_DENSE_CELLS && cellCount <= (long) entities * MAX_DENSE_CELLS_PER_ENTITY;
+	}
+
+	/**
+	 * Returns the number of slots needed to keep the given number of cells at most half full.
+	 */
+	private static int getSlotCount(int cells) {
+		int slots = MIN_SLOTS;
+		while (slots < 2L * cells && slots < MAX_SLOTS) {
+			slots <<= 1;
+		}
+		return slots;
+	}
+
+	/**
+	 * Replaces the table by an empty one with the given number of slots.
+	 */
+	private void allocate(int slots) {
+		keys = new long[slots];
+		counts = new int[slots];
+		bits = Integer.numberOfTrailingZeros(slots);
+		size = 0;
+		Arrays.fill(keys, EMPTY);
+	}
+
+	/**
+	 * Returns the slot a key is looked up from first.
+	 */
+	private int getHome(long key) {
+		return (int) ((key * 0x9E3779B97F4A7C15L) >>> (64 - bits));
+	}
+
+	/**
+	 * Returns the slot holding the given key.
+	 *
+	 * @return the slot, or -1 if the key is not in the table
+	 */
+	private int find(long key) {
+		int mask = keys.length - 1;
+		int slot = getHome(key);
+		while (keys[slot] != EMPTY) {
+			if (keys[slot] == key) {
+				return slot;
+			}
+			slot = (slot + 1) & mask;
+		}
+		return -1;
+	}
+
+	/**
+	 * Makes sure the given number of entities fits without the index growing while they move.
+	 * Only allowed while the index is empty.
+	 *
+	 * @param entities Number of entities to make room for.
+	 */
+	public void ensureCapacity(int entities) {
+		if (cells != null) {
+			return;
+		}
+		if (isDense(entities)) {
+			cells = new byte[width * height];
+			allocate(MIN_SLOTS);
+		} else if (getSlotCount(entities) > keys.length) {
+			allocate(getSlotCount(entities));
+		}
+	}
+
+	/**
+	 * Returns the number of entities on a cell.
+	 *
+	 * @param x the X coordinate of the cell
+	 * @param y the Y coordinate of the cell
+	 * @return Number of entities on the cell, 0 for cells outside the maze.
+	 */
+	public int getCount(int x, int y) {
+		if (x < 0 || x >= width || y < 0 || y >= height) {
+			return 0;
+		}
+		long key = (long) y * width + x;
+		if (cells != null) {
+			int count = cells[(int) key] & 0xFF;
+			if (count < MAX_CELL_COUNT) {
+				return count;
+			}
+			return count + getTableCount(key);
+		}
+		return getTableCount(key);
+	}
+
+	/**
+	 * Returns the number of entities the table holds for a cell.
+	 */
+	private int getTableCount(long key) {
+		int slot = find(key);
+		return slot < 0 ? 0 : counts[slot];
+	}
+
+	/**
+	 * Returns whether any entity stands on a cell.
+	 *
+	 * @param x the X coordinate of the cell
+	 * @param y the Y coordinate of the cell
+	 * @return true if the cell is occupied, otherwise false
+	 */
+	public boolean isOccupied(int x, int y) {
+		return getCount(x, y) > 0;
+	}
+
+	/**
+	 * Adds an entity on a cell inside the maze.
+	 *
+	 * @param x the X coordinate of the cell
+	 * @param y the Y coordinate of the cell
+	 */
+	public void add(int x, int y) {
+		long key = (long) y * width + x;
+		if (cells != null) {
+			int count = cells[(int) key] & 0xFF;
+			if (count < MAX_CELL_COUNT) {
+				cells[(int) key] = (byte) (count + 1);
+				return;
+			}
+		}
+
+		int mask = keys.length - 1;
+		int slot = getHome(key);
+		while (keys[slot] != EMPTY) {
+			if (keys[slot] == key) {
+				counts[slot]++;
+				return;
+			}
+			slot = (slot + 1) & mask;
+		}
+
+		keys[slot] = key;
+		counts[slot] = 1;
+		size++;
+		if (2L * size > keys.length && keys.length < MAX_SLOTS) {
+			rehash(keys.length * 2);
+		}
+	}
+
+	/**
+	 * Removes an entity from a cell inside the maze. Nothing happens if the cell is free.
+	 *
+	 * @param x the X coordinate of the cell
+	 * @param y the Y coordinate of the cell
+	 */
+	public void remove(int x, int y) {
+		long key = (long) y * width + x;
+		if (cells != null) {
+			int count = cells[(int) key] & 0xFF;
+			// Entities beyond a full counter are taken from the table first
+			if (count == MAX_CELL_COUNT && removeFromTable(key)) {
+				return;
+			}
+			if (count > 0) {
+				cells[(int) key] = (byte) (count - 1);
+			}
+			return;
+		}
+
+		removeFromTable(key);
+	}
+
+	/**
+	 * Removes an entity of a cell from the table.
+	 *
+	 * @return true if the table held an entity of the cell, otherwise false
+	 */
+	private boolean removeFromTable(long key) {
+		int slot = find(key);
+		if (slot < 0) {
+			return false;
+		}
+		if (--counts[slot] == 0) {
+			delete(slot);
+		}
+		return true;
+	}
+
+	/**
+	 * Moves an entity from one cell inside the maze to another.
+	 *
+	 * @param fromX the X coordinate of the cell the entity leaves
+	 * @param fromY the Y coordinate of the cell the entity leaves
+	 * @param toX   the X coordinate of the cell the entity enters
+	 * @param toY   the Y coordinate of the cell the entity enters
+	 */
+	public void move(int fromX, int fromY, int toX, int toY) {
+		if (fromX != toX || fromY != toY) {
+			remove(fromX, fromY);
+			add(toX, toY);
+		}
+	}
+
+	/**
+	 * Empties a slot and shifts later keys of the same probe run back, so lookups never stop early
+	 * at the hole and no tombstones are needed.
+	 */
+	private void delete(int slot) {
+		int mask = keys.length - 1;
+		int hole = slot;
+		int next = (hole + 1) & mask;
+		while (keys[next] != EMPTY) {
+			// The key may fill the hole if the hole lies between its home slot and its current slot
+			int home = getHome(keys[next]);
+			if (((next - home) & mask) >= ((next - hole) & mask)) {
+				keys[hole] = keys[next];
+				counts[hole] = counts[next];
+				hole = next;
+			}
+			next = (next + 1) & mask;
+		}
+		keys[hole] = EMPTY;
+		size--;
+	}
+
+	/**
+	 * Moves all keys into a new table with the given number of slots.
+	 */
+	private void rehash(int slots) {
+		long[] oldKeys = keys;
+		int[] oldCounts = counts;
+		allocate(slots);
+
+		int mask = slots - 1;
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldKeys[i] != EMPTY) {
+				int slot = getHome(oldKeys[i]);
+				while (keys[slot] != EMPTY) {
+					slot = (slot + 1) & mask;
+				}
+				keys[slot] = oldKeys[i];
+				counts[slot] = oldCounts[i];
+				size++;
+			}
+		}
+	}
+}
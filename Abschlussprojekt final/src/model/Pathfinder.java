@@ -0,0 +1,62 @@
+package model;
+
+/**
+ * A Pathfinder finds the first step of a shortest path between two cells of a maze. Worlds use one per
+ * difficulty to move chasing pursuers toward the player, see {@link World#setPathfinder(int, Pathfinder)}.
+ * Implementations keep their search buffers between calls, so an instance must only be used by one
+ * thread at a time.
+ */
+public interface Pathfinder {
+
+	/**
+	 * Returns the direction of the first step on a shortest path from one cell to another.
+	 *
+	 * @param walls the grid representing the walls in the world, cells outside count as walls
+	 * @param fromX the X coordinate of the cell the path starts at
+	 * @param fromY the Y coordinate of the cell the path starts at
+	 * @param toX   the X coordinate of the cell the path leads to
+	 * @param toY   the Y coordinate of the cell the path leads to
+	 * @return the first step, or {@link Direction#NONE} if both cells are the same or there is no path
+	 */
+	Direction firstStep(WallGrid walls, int fromX, int fromY, int toX, int toY);
+
+	/**
+	 * Returns the direction of the first step of a pursuer like {@link #firstStep(WallGrid, int, int, int, int)}.
+	 * Pathfinders that can reuse the path found for the same pursuer in an earlier search keep it under
+	 * the given number. By default the pursuer is ignored.
+	 *
+	 * @param pursuer the index of the pursuer the path is searched for
+	 * @param walls   the grid representing the walls in the world, cells outside count as walls
+	 * @param fromX   the X coordinate of the cell the path starts at
+	 * @param fromY   the Y coordinate of the cell the path starts at
+	 * @param toX     the X coordinate of the cell the path leads to
+	 * @param toY     the Y coordinate of the cell the path leads to
+	 * @return the first step, or {@link Direction#NONE} if both cells are the same or there is no path
+	 */
+	default Direction firstStep(int pursuer, WallGrid walls, int fromX, int fromY, int toX, int toY) {
+		return firstStep(walls, fromX, fromY, toX, toY);
+	}
+
+	/**
+	 * Prepares the pathfinder for searches in the given grid, so work that would otherwise fall on the
+	 * first search, such as building a precomputed graph, is done ahead of time. {@link World} calls this
+	 * when the pathfinder is set, not while the game is running. Does nothing by default.
+	 *
+	 * @param walls the grid representing the walls in the world
+	 */
+	default void prepare(WallGrid walls) {
+	}
+
+	/**
+	 * Returns the number of nodes all searches of this pathfinder have expanded so far, the usual measure
+	 * of how much work a search engine does for a maze.
+	 *
+	 * @return Number of expanded nodes.
+	 */
+	long getExpandedNodes();
+
+	/**
+	 * Sets the number of expanded nodes back to zero.
+	 */
+	void resetExpandedNodes();
+}
@@ -0,0 +1,76 @@
+package model;
+
+import java.util.SplittableRandom;
+
+/**
+ * A Policy chooses the player's moves in a headless game. Every game gets its own policy instance,
+ * so implementations may keep per-game state but never need to be thread-safe.
+ */
+public interface Policy {
+
+	/**
+	 * Chooses the player's next move.
+	 *
+	 * @param world  the World object of the running game
+	 * @param random the random number generator of this game
+	 * @return the direction in which to move the player, {@link Direction#NONE} to wait
+	 */
+	Direction nextMove(World world, SplittableRandom random);
+
+	/**
+	 * Returns a policy that moves in a random direction every step.
+	 *
+	 * @return the random policy
+	 */
+	static Policy random() {
+		Direction[] moves = {Direction.UP, Direction.DOWN, Direction.LEFT, Direction.RIGHT};
+		return (world, random) -> moves[random.nextInt(moves.length)];
+	}
+
+	/**
+	 * Returns a policy that follows a shortest path to the end and waits while a pursuer blocks the next cell.
+	 *
+	 * @return the greedy policy
+	 */
+	static Policy greedy() {
+		return new Policy() {
+			// Distances to the end, computed once for the game's maze
+			private DistanceField toEnd;
+
+			@Override
+			public Direction nextMove(World world, SplittableRandom random) {
+				if (toEnd == null) {
+					toEnd = new DistanceField(world.getWidth(), world.getHeight());
+				}
+				toEnd.update(world.getWalls(), world.getEndX(), world.getEndY());
+
+				Direction move = toEnd.nextDirection(world.getPlayerX(), world.getPlayerY());
+				int x = world.getPlayerX() + move.deltaX;
+				int y = world.getPlayerY() + move.deltaY;
+
+				return world.isPursuerAt(x, y) ? Direction.NONE : move;
+			}
+		};
+	}
+
+	/**
+	 * Returns a policy that repeats the given moves in order.
+	 *
+	 * @param moves the moves to play, starting over after the last one
+	 * @return the scripted policy
+	 */
+	static Policy scripted(Direction... moves) {
+		Direction[] script = moves.clone();
+		return new Policy() {
+			// Index of the next move in the script
+			private int next = 0;
+
+			@Override
+			public Direction nextMove(World world, SplittableRandom random) {
+				Direction move = script[next];
+				next = (next + 1) % script.length;
+				return move;
+			}
+		};
+	}
+}
@@ -0,0 +1,216 @@
+package model;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Pursuers keeps the positions and per-pursuer state of all pursuers of a world in parallel primitive
+ * arrays, so a world can hold thousands of them. Moving them is a loop over the arrays that creates no
+ * objects, which keeps a tick linear in the number of pursuers and free of garbage. The arrays only
+ * grow when more pursuers are placed than ever before. An {@link OccupancyIndex} follows every move,
+ * so finding out whether a pursuer stands on a cell takes constant time.
+ */
+public class Pursuers {
+
+	// X coordinates of the pursuers
+	private int[] xs;
+
+	// Y coordinates of the pursuers
+	private int[] ys;
+
+	// Whether each pursuer makes a random move next instead of chasing the player
+	private boolean[] randomMoves;
+
+	// Number of pursuers in play, the arrays may be longer
+	private int count = 0;
+
+	// Number of pursuers on each occupied cell
+	private final OccupancyIndex occupancy;
+
+	// Number of moves so far that took a pursuer to another cell
+	private long moveCount = 0;
+
+	/**
+	 * Constructs an empty set of pursuers for a maze of the given size with room for the given number
+	 * of them.
+	 *
+	 * @param width    Width of the maze.
+	 * @param height   Height of the maze.
+	 * @param capacity Number of pursuers that fit before the arrays have to grow.
+	 */
+	public Pursuers(int width, int height, int capacity) {
+		this.xs = new int[capacity];
+		this.ys = new int[capacity];
+		this.randomMoves = new boolean[capacity];
+		this.occupancy = new OccupancyIndex(width, height, capacity);
+	}
+
+	/**
+	 * Returns the number of pursuers in play.
+	 *
+	 * @return Number of pursuers.
+	 */
+	public int getCount() {
+		return count;
+	}
+
+	/**
+	 * Returns the number of moves so far that took a pursuer to another cell. Comparing it before and
+	 * after a step tells whether any pursuer moved.
+	 *
+	 * @return Number of moves.
+	 */
+	public long getMoveCount() {
+		return moveCount;
+	}
+
+	/**
+	 * Returns the X coordinate of a pursuer.
+	 *
+	 * @param index the index of the pursuer
+	 * @return X coordinate of the pursuer.
+	 */
+	public int getX(int index) {
+		return xs[index];
+	}
+
+	/**
+	 * Returns the Y coordinate of a pursuer.
+	 *
+	 * @param index the index of the pursuer
+	 * @return Y coordinate of the pursuer.
+	 */
+	public int getY(int index) {
+		return ys[index];
+	}
+
+	/**
+	 * Moves a pursuer to the given cell without checking for walls.
+	 *
+	 * @param index the index of the pursuer, less than {@link #getCount()}
+	 * @param x     New X coordinate of the pursuer.
+	 * @param y     New Y coordinate of the pursuer.
+	 */
+	public void set(int index, int x, int y) {
+		if (x == xs[index] && y == ys[index]) {
+			return;
+		}
+		occupancy.move(xs[index], ys[index], x, y);
+		moveCount++;
+		xs[index] = x;
+		ys[index] = y;
+	}
+
+	/**
+	 * Returns whether a pursuer makes a random move next instead of chasing the player.
+	 *
+	 * @param index the index of the pursuer
+	 * @return true if the next move is random, otherwise false
+	 */
+	public boolean getRandomMove(int index) {
+		return randomMoves[index];
+	}
+
+	/**
+	 * Decides whether a pursuer makes a random move next instead of chasing the player.
+	 *
+	 * @param index the index of the pursuer
+	 * @param value true for a random move, false to chase
+	 */
+	public void setRandomMove(int index, boolean value) {
+		randomMoves[index] = value;
+	}
+
+	/**
+	 * Replaces all pursuers by new ones on the given cells. Every new pursuer starts with a random move.
+	 *
+	 * @param cells the cells of the pursuers, as x and y of pursuer 1, then of pursuer 2 and so on
+	 */
+	public void place(int[] cells) {
+		// Take the old pursuers off the index one by one, which is cheaper than clearing a large index
+		for (int i = 0; i < count; i++) {
+			occupancy.remove(xs[i], ys[i]);
+		}
+
+		int newCount = cells.length / 2;
+		if (newCount > xs.length) {
+			xs = new int[newCount];
+			ys = new int[newCount];
+			randomMoves = new boolean[newCount];
+		}
+
+		occupancy.ensureCapacity(newCount);
+		for (int i = 0; i < newCount; i++) {
+			xs[i] = cells[2 * i];
+			ys[i] = cells[2 * i + 1];
+			occupancy.add(xs[i], ys[i]);
+		}
+		Arrays.fill(randomMoves, 0, newCount, true);
+		count = newCount;
+	}
+
+	/**
+	 * Moves a pursuer one cell in the given direction unless a wall is in the way.
+	 *
+	 * @param index     the index of the pursuer
+	 * @param direction the direction in which to move
+	 * @param walls     the walls of the maze, cells outside count as walls
+	 */
+	public void move(int index, Direction direction, WallGrid walls) {
+		int x = xs[index] + direction.deltaX;
+		int y = ys[index] + direction.deltaY;
+		if ((x != xs[index] || y != ys[index]) && !walls.isWall(x, y)) {
+			occupancy.move(xs[index], ys[index], x, y);
+			xs[index] = x;
+			ys[index] = y;
+			moveCount++;
+		}
+	}
+
+	/**
+	 * Moves every pursuer one cell in a random direction unless a wall is in the way. The directions are
+	 * drawn in the order of the pursuers.
+	 *
+	 * @param walls  the walls of the maze, cells outside count as walls
+	 * @param random the generator the directions are drawn from
+	 */
+	public void moveRandomly(WallGrid walls, RandomGenerator random) {
+		for (int i = 0; i < count; i++) {
+			move(i, Direction.getRandomDirection(random), walls);
+		}
+	}
+
+	/**
+	 * Moves every pursuer one cell along the arrow of the flow field under it.
+	 *
+	 * @param flow  the flow field pointing toward the target of the pursuers
+	 * @param walls the walls of the maze, cells outside count as walls
+	 */
+	public void follow(FlowField flow, WallGrid walls) {
+		for (int i = 0; i < count; i++) {
+			move(i, flow.getDirection(xs[i], ys[i]), walls);
+		}
+	}
+
+	/**
+	 * Returns whether any pursuer stands on the given cell.
+	 *
+	 * @param x the X coordinate of the cell
+	 * @param y the Y coordinate of the cell
+	 * @return true if a pursuer is on the cell, otherwise false
+	 */
+	public boolean isAt(int x, int y) {
+		return occupancy.isOccupied(x, y);
+	}
+
+	/**
+	 * Returns the number of pursuers standing on the given cell.
+	 *
+	 * @param x the X coordinate of the cell
+	 * @param y the Y coordinate of the cell
+	 * @return Number of pursuers on the cell.
+	 */
+	public int countAt(int x, int y) {
+		return occupancy.getCount(x, y);
+	}
+}
@@ -0,0 +1,83 @@
+package model;
+
+import java.util.SplittableRandom;
+
+/**
+ * RecursiveBacktrackerGenerator carves a maze by a randomised depth-first search: it keeps walking to a
+ * random unvisited neighbour and backs up when it is stuck. The mazes have long winding corridors and few
+ * dead ends. The search uses an explicit stack of room numbers instead of recursion, so it handles
+ * mazes of millions of rooms; it is the fastest of the generators.
+ */
+public class RecursiveBacktrackerGenerator extends MazeGenerator {
+
+	@Override
+	protected void carve(WallGrid walls, int roomsX, int roomsY, SplittableRandom random) {
+		carveRegion(walls, roomsX, 0, 0, roomsX, roomsY, random);
+	}
+
+	/**
+	 * Carves a maze into a rectangular region of rooms. Only the rooms of the region and the passages
+	 * between them are opened, so regions that do not overlap can be carved at the same time as long as
+	 * they never share a word of the grid.
+	 *
+	 * @param walls   the grid to carve into
+	 * @param roomsX  the number of rooms per row of the whole maze
+	 * @param regionX the column of the first room of the region
+	 * @param regionY the row of the first room of the region
+	 * @param width   the number of rooms per row of the region
+	 * @param height  the number of rows of rooms of the region
+	 * @param random  the random number generator the region is drawn from
+	 */
+	static void carveRegion(WallGrid walls, int roomsX, int regionX, int regionY, int width, int height, SplittableRandom random) {
+		// Rooms are numbered within the region here and converted when opened
+		int rooms = width * height;
+		boolean[] visited = new boolean[rooms];
+		int[] stack = new int[rooms];
+		int[] options = new int[4];
+
+		int start = random.nextInt(rooms);
+		int depth = 0;
+		stack[depth++] = start;
+		visited[start] = true;
+		openRoom(walls, roomsX, toRoom(roomsX, regionX, regionY, width, start));
+
+		while (depth > 0) {
+			int room = stack[depth - 1];
+			int x = room % width;
+			int y = room / width;
+
+			// Collect the unvisited neighbours
+			int count = 0;
+			if (y > 0 && !visited[room - width]) options[count++] = room - width;
+			if (y < height - 1 && !visited[room + width]) options[count++] = room + width;
+			if (x > 0 && !visited[room - 1]) options[count++] = room - 1;
+			if (x < width - 1 && !visited[room + 1]) options[count++] = room + 1;
+
+			if (count == 0) {
+				depth--;
+				continue;
+			}
+
+			int next = options[random.nextInt(count)];
+			int nextRoom = toRoom(roomsX, regionX, regionY, width, next);
+			openPassage(walls, roomsX, toRoom(roomsX, regionX, regionY, width, room), nextRoom);
+			openRoom(walls, roomsX, nextRoom);
+			visited[next] = true;
+			stack[depth++] = next;
+		}
+	}
+
+	/**
+	 * Converts the number of a room within a region to its number within the whole maze.
+	 *
+	 * @param roomsX  the number of rooms per row of the whole maze
+	 * @param regionX the column of the first room of the region
+	 * @param regionY the row of the first room of the region
+	 * @param width   the number of rooms per row of the region
+	 * @param room    the number of the room within the region
+	 * @return the number of the room within the maze
+	 */
+	private static int toRoom(int roomsX, int regionX, int regionY, int width, int room) {
+		return (regionY + room / width) * roomsX + regionX + room % width;
+	}
+}
@@ -0,0 +1,114 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * SearchHeap is the open list of the informed searches: a binary min-heap of cell indices ordered by a
+ * {@code long} priority, kept in two parallel primitive arrays. Cells are not updated in place when a
+ * cheaper path is found; they are pushed again and the search skips the outdated entries. The arrays
+ * only grow when more entries are needed than ever before.
+ */
+public class SearchHeap {
+
+	// Priorities of the entries in heap order
+	private long[] priorities;
+
+	// Cell indices of the entries in heap order
+	private int[] cells;
+
+	// Number of entries
+	private int size = 0;
+
+	/**
+	 * Constructs an empty heap with room for the given number of entries.
+	 *
+	 * @param capacity Number of entries that fit before the arrays have to grow.
+	 */
+	public SearchHeap(int capacity) {
+		this.priorities = new long[Math.max(capacity, 1)];
+		this.cells = new int[Math.max(capacity, 1)];
+	}
+
+	/**
+	 * Returns whether the heap has no entries.
+	 *
+	 * @return true if the heap is empty, otherwise false
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Removes all entries.
+	 */
+	public void clear() {
+		size = 0;
+	}
+
+	/**
+	 * Adds a cell with the given priority.
+	 *
+	 * @param priority the priority, smaller values come first
+	 * @param cell     the index of the cell
+	 */
+	public void push(long priority, int cell) {
+		if (size == priorities.length) {
+			priorities = Arrays.copyOf(priorities, 2 * size);
+			cells = Arrays.copyOf(cells, 2 * size);
+		}
+
+		// Move larger parents down until the new entry fits
+		int index = size++;
+		while (index > 0) {
+			int parent = (index - 1) >>> 1;
+			if (priorities[parent] <= priority) {
+				break;
+			}
+			priorities[index] = priorities[parent];
+			cells[index] = cells[parent];
+			index = parent;
+		}
+		priorities[index] = priority;
+		cells[index] = cell;
+	}
+
+	/**
+	 * Returns the smallest priority without removing its entry. The heap must not be empty.
+	 *
+	 * @return the priority of the first entry
+	 */
+	public long peekPriority() {
+		return priorities[0];
+	}
+
+	/**
+	 * Removes the entry with the smallest priority. The heap must not be empty.
+	 *
+	 * @return the index of its cell
+	 */
+	public int pop() {
+		int first = cells[0];
+		long priority = priorities[--size];
+		int cell = cells[size];
+
+		// Move smaller children up until the last entry fits
+		int index = 0;
+		int half = size >>> 1;
+		while (index < half) {
+			int child = 2 * index + 1;
+			if (child + 1 < size && priorities[child + 1] < priorities[child]) {
+				child++;
+			}
+			if (priority <= priorities[child]) {
+				break;
+			}
+			priorities[index] = priorities[child];
+			cells[index] = cells[child];
+			index = child;
+		}
+		priorities[index] = priority;
+		cells[index] = cell;
+
+		return first;
+	}
+}
@@ -0,0 +1,94 @@
+package model;
+
+/**
+ * Simulation steps a {@link World} without any display. Each step applies one player action and moves the
+ * pursuers, exactly like a key press in the game, but no view is notified. It is meant to be driven from a
+ * plain loop, e.g. by bots or when tuning the difficulty on a server.
+ */
+public class Simulation {
+
+	// The world being simulated
+	private final World world;
+
+	// Number of steps made since the last reset
+	private long ticks = 0;
+
+	/**
+	 * Constructs a simulation of the given world in the given mode and resets it to the start.
+	 *
+	 * @param world the World object to simulate
+	 * @param mode  1 for easy, 2 for medium, 3 for difficult mode
+	 */
+	public Simulation(World world, int mode) {
+		this.world = world;
+		world.selectMode(mode);
+		restart();
+	}
+
+	/**
+	 * Returns the simulated world.
+	 *
+	 * @return the World object being simulated
+	 */
+	public World getWorld() {
+		return world;
+	}
+
+	/**
+	 * Returns the number of steps made since the last reset.
+	 *
+	 * @return the number of steps
+	 */
+	public long getTicks() {
+		return ticks;
+	}
+
+	/**
+	 * Returns whether the game is over, i.e. whether the player has won or lost.
+	 *
+	 * @return true if the game is over, otherwise false
+	 */
+	public boolean isOver() {
+		return world.getWin() || world.getLost();
+	}
+
+	/**
+	 * Resets the world to the start of a game in its current mode.
+	 */
+	public void reset() {
+		restart();
+	}
+
+	/**
+	 * Resets the world to the start of a game in its current mode and seeds its random pursuer moves.
+	 * Two games reset with the same seed and given the same actions are identical.
+	 *
+	 * @param seed Seed of the generator for random pursuer moves.
+	 */
+	public void reset(long seed) {
+		world.setSeed(seed);
+		reset();
+	}
+
+	/**
+	 * Resets the world and the step count. Kept private, so the constructor does not call a method a
+	 * subclass could override.
+	 */
+	private void restart() {
+		world.resetGame();
+		ticks = 0;
+	}
+
+	/**
+	 * Advances the game by one step with the given player action.
+	 *
+	 * @param action the direction in which to move the player
+	 * @return true if the game goes on after this step, false if it is over
+	 */
+	public boolean step(Direction action) {
+		if (world.tick(action)) {
+			ticks++;
+		}
+		return !isOver();
+	}
+}
@@ -0,0 +1,48 @@
+package model;
+
+/**
+ * A StorageAllocator decides where a world keeps its large buffers: the wall bits of its
+ * {@link WallGrid} and the distances and queue of its {@link DistanceField}.
+ * <p>
+ * Only the heap allocator is part of the game's sources. The allocator for off-heap memory,
+ * {@code OffHeapAllocator}, uses the Foreign Function &amp; Memory API of JDK 22 and lives with its storage
+ * classes in the separate source folder {@code src-offheap}, which the build only compiles on JDK 22 or
+ * later, so the game itself still builds on older JDKs.
+ */
+public interface StorageAllocator {
+
+	/**
+	 * Allocates storage for the given number of 64-bit words, all zero.
+	 *
+	 * @param size Number of words.
+	 * @return the new storage
+	 */
+	LongStorage allocateLongs(int size);
+
+	/**
+	 * Allocates storage for the given number of 32-bit values, all zero.
+	 *
+	 * @param size Number of values.
+	 * @return the new storage
+	 */
+	IntStorage allocateInts(int size);
+
+	/**
+	 * Returns the allocator that keeps all buffers in arrays on the heap, the default of every world.
+	 *
+	 * @return the heap allocator
+	 */
+	static StorageAllocator heap() {
+		return new StorageAllocator() {
+			@Override
+			public LongStorage allocateLongs(int size) {
+				return new LongArrayStorage(size);
+			}
+
+			@Override
+			public IntStorage allocateInts(int size) {
+				return new IntArrayStorage(size);
+			}
+		};
+	}
+}
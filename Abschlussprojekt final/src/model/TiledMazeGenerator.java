@@ -0,0 +1,111 @@
+package model;
+
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * TiledMazeGenerator carves giant mazes on all available cores. The rooms are split into square tiles of
+ * {@link #TILE_ROOMS} x {@link #TILE_ROOMS} rooms, each tile is carved on its own by the recursive
+ * backtracker, and the tiles are then stitched together by opening one passage on each edge of a random
+ * spanning tree over the tiles. Every tile is a spanning tree of its rooms, so the result is again a
+ * perfect maze; the single passages between tiles are its only visible trace.
+ * <p>
+ * A tile is 128 cells wide and starts at a multiple of 128, so it covers exactly two words of every row of
+ * the {@link WallGrid} and tiles carved at the same time never write to the same word. The passages
+ * between tiles lie in the first column or row of the next tile and are opened afterwards by one thread.
+ * <p>
+ * The random number generator of every tile is split off the given one in tile order before any tile is
+ * carved, so the maze only depends on the seed and not on the number of threads or their scheduling.
+ */
+public class TiledMazeGenerator extends MazeGenerator {
+
+	/**
+	 * Number of rooms along each side of a tile, 128 cells or two 64-bit words.
+	 */
+	public static final int TILE_ROOMS = 64;
+
+	@Override
+	protected void carve(WallGrid walls, int roomsX, int roomsY, SplittableRandom random) {
+		int tilesX = (roomsX + TILE_ROOMS - 1) / TILE_ROOMS;
+		int tilesY = (roomsY + TILE_ROOMS - 1) / TILE_ROOMS;
+		int tiles = tilesX * tilesY;
+
+		// Hand out the generators before going parallel, so the maze does not depend on the scheduling
+		SplittableRandom[] tileRandoms = new SplittableRandom[tiles];
+		for (int tile = 0; tile < tiles; tile++) {
+			tileRandoms[tile] = random.split();
+		}
+
+		IntStream.range(0, tiles).parallel().forEach(tile -> {
+			int regionX = tile % tilesX * TILE_ROOMS;
+			int regionY = tile / tilesX * TILE_ROOMS;
+			int width = Math.min(TILE_ROOMS, roomsX - regionX);
+			int height = Math.min(TILE_ROOMS, roomsY - regionY);
+			RecursiveBacktrackerGenerator.carveRegion(walls, roomsX, regionX, regionY, width, height, tileRandoms[tile]);
+		});
+
+		stitch(walls, roomsX, roomsY, tilesX, tilesY, random);
+	}
+
+	/**
+	 * Connects the carved tiles along a random spanning tree over the tiles, found by a randomised
+	 * depth-first search. For every edge of the tree one random passage on the shared border is opened.
+	 *
+	 * @param walls  the grid to carve into
+	 * @param roomsX the number of rooms per row
+	 * @param roomsY the number of rows of rooms
+	 * @param tilesX the number of tiles per row
+	 * @param tilesY the number of rows of tiles
+	 * @param random the random number generator the tree and the passages are drawn from
+	 */
+	private static void stitch(WallGrid walls, int roomsX, int roomsY, int tilesX, int tilesY, SplittableRandom random) {
+		int tiles = tilesX * tilesY;
+		boolean[] visited = new boolean[tiles];
+		int[] stack = new int[tiles];
+		int[] options = new int[4];
+
+		int depth = 0;
+		stack[depth++] = 0;
+		visited[0] = true;
+
+		while (depth > 0) {
+			int tile = stack[depth - 1];
+			int x = tile % tilesX;
+			int y = tile / tilesX;
+
+			// Collect the unvisited neighbours
+			int count = 0;
+			if (y > 0 && !visited[tile - tilesX]) options[count++] = tile - tilesX;
+			if (y < tilesY - 1 && !visited[tile + tilesX]) options[count++] = tile + tilesX;
+			if (x > 0 && !visited[tile - 1]) options[count++] = tile - 1;
+			if (x < tilesX - 1 && !visited[tile + 1]) options[count++] = tile + 1;
+
+			if (count == 0) {
+				depth--;
+				continue;
+			}
+
+			int next = options[random.nextInt(count)];
+			int first = Math.min(tile, next);
+			int firstX = first % tilesX * TILE_ROOMS;
+			int firstY = first / tilesX * TILE_ROOMS;
+
+			// Pick a room on the far border of the first tile and open the passage to its neighbour
+			int room;
+			int other;
+			if (next / tilesX == y) {
+				int roomY = firstY + random.nextInt(Math.min(TILE_ROOMS, roomsY - firstY));
+				room = roomY * roomsX + firstX + TILE_ROOMS - 1;
+				other = room + 1;
+			} else {
+				int roomX = firstX + random.nextInt(Math.min(TILE_ROOMS, roomsX - firstX));
+				room = (firstY + TILE_ROOMS - 1) * roomsX + roomX;
+				other = room + roomsX;
+			}
+			openPassage(walls, roomsX, room, other);
+
+			visited[next] = true;
+			stack[depth++] = next;
+		}
+	}
+}
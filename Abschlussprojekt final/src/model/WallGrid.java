@@ -0,0 +1,308 @@
+package model;
+
+/**
+ * WallGrid stores the walls of the world as a packed bitset with one bit per cell.
+ * Every row of the grid occupies a whole number of 64-bit words, so bit {@code x & 63} of word
+ * {@code x >>> 6} in row {@code y} is set if the cell (x, y) is a wall.
+ * <p>
+ * Besides single cell access, the grid offers operations on whole words of a row, which let
+ * algorithms handle 64 neighbouring cells at once with shifts and masks.
+ * <p>
+ * The words are kept in a {@link LongStorage}: a heap array for grids built in memory, or e.g. a
+ * memory-mapped file for grids loaded with {@link MazeFile}. Words in a heap array are read from the
+ * array directly.
+ */
+public class WallGrid {
+
+	// Dimensions of the world grid
+	private final int width;
+	private final int height;
+
+	// Number of 64-bit words per row
+	private final int wordsPerRow;
+
+	// Wall bits, row after row
+	private final LongStorage words;
+
+	// Array behind the words if they are on the heap, read directly instead of through the storage
+	private final long[] heapWords;
+
+	// Mask of the cells inside the grid in the last word of a row
+	private final long lastWordMask;
+
+	/**
+	 * Constructs a wall grid of the given dimensions without any walls.
+	 *
+	 * @param width  Width of the world grid.
+	 * @param height Height of the world grid.
+	 * @throws IllegalArgumentException if a dimension is not positive or the grid is too large to be stored
+	 */
+	public WallGrid(int width, int height) {
+		this(width, height, new LongArrayStorage(getWordCount(width, height)));
+	}
+
+	/**
+	 * Constructs a wall grid of the given dimensions on top of existing words, which are neither copied
+	 * nor cleared. The storage must hold {@link #getWordCount(int, int)} words.
+	 *
+	 * @param width  Width of the world grid.
+	 * @param height Height of the world grid.
+	 * @param words  Storage of the wall bits, row after row.
+	 * @throws IllegalArgumentException if a dimension is not positive, the grid is too large to be stored,
+	 *                                  or the storage has the wrong size
+	 */
+	public WallGrid(int width, int height, LongStorage words) {
+		int size = getWordCount(width, height);
+		if (words.size() != size) {
+			throw new IllegalArgumentException("Storage holds " + words.size() + " words instead of " + size);
+		}
+
+		this.width = width;
+		this.height = height;
+		this.wordsPerRow = (width + 63) >>> 6;
+		this.words = words;
+		this.heapWords = words instanceof LongArrayStorage ? ((LongArrayStorage) words).array() : null;
+		this.lastWordMask = (width & 63) == 0 ? -1L : (1L << (width & 63)) - 1;
+	}
+
+	/**
+	 * Returns whether the words are read from a file in chunks when they are needed, see
+	 * {@link MazeFile#loadChunked}. Such a grid may be far larger than buffers of one entry per cell
+	 * allow, and reading all of it means reading the whole file.
+	 *
+	 * @return true if the grid is read in chunks, otherwise false
+	 */
+	public boolean isChunked() {
+		return words instanceof ChunkedLongStorage;
+	}
+
+	/**
+	 * Returns a grid of the same walls that another thread can read while this one is in use. Most
+	 * storage is read without changing any state, so the grid itself is returned. Storage that loads
+	 * chunks of a file while it is read is not thread-safe; a new grid with an empty cache of its own
+	 * that reads the same file is returned instead, see {@link ChunkedLongStorage#copy()}.
+	 *
+	 * @return this grid, or a new grid reading the same words
+	 */
+	public WallGrid copyForThread() {
+		if (isChunked()) {
+			return new WallGrid(width, height, ((ChunkedLongStorage) words).copy());
+		}
+		return this;
+	}
+
+	/**
+	 * Returns the number of words a grid of the given dimensions is stored in.
+	 *
+	 * @param width  Width of the world grid.
+	 * @param height Height of the world grid.
+	 * @return Number of 64-bit words.
+	 * @throws IllegalArgumentException if a dimension is not positive or the grid is too large to be stored
+	 */
+	public static int getWordCount(int width, int height) {
+		if (width <= 0 || height <= 0) {
+			throw new IllegalArgumentException("Grid dimensions must be positive: " + width + "x" + height);
+		}
+
+		long size = (long) ((width + 63) >>> 6) * height;
+		if (size > Integer.MAX_VALUE - 8) {
+			throw new IllegalArgumentException("Grid is too large: " + width + "x" + height);
+		}
+		return (int) size;
+	}
+
+	/**
+	 * Returns the width of the grid.
+	 *
+	 * @return Width of the grid.
+	 */
+	public int getWidth() {
+		return width;
+	}
+
+	/**
+	 * Returns the height of the grid.
+	 *
+	 * @return Height of the grid.
+	 */
+	public int getHeight() {
+		return height;
+	}
+
+	/**
+	 * Returns the number of 64-bit words used for each row.
+	 *
+	 * @return Number of words per row.
+	 */
+	public int getWordsPerRow() {
+		return wordsPerRow;
+	}
+
+	/**
+	 * Returns whether the given cell is a wall. Cells outside the grid count as walls,
+	 * so callers do not need their own bounds checks.
+	 *
+	 * @param x the X coordinate of the cell
+	 * @param y the Y coordinate of the cell
+	 * @return true if the cell is a wall or outside the grid, otherwise false
+	 */
+	public boolean isWall(int x, int y) {
+		if (x < 0 || x >= width || y < 0 || y >= height) {
+			return true;
+		}
+		return (readWord(y * wordsPerRow + (x >>> 6)) & (1L << x)) != 0;
+	}
+
+	/**
+	 * Places or removes a wall at the given cell.
+	 *
+	 * @param x    the X coordinate of the cell
+	 * @param y    the Y coordinate of the cell
+	 * @param wall true to place a wall, false to remove it
+	 * @throws IndexOutOfBoundsException if the cell is outside the grid
+	 */
+	public void setWall(int x, int y, boolean wall) {
+		if (x < 0 || x >= width || y < 0 || y >= height) {
+			throw new IndexOutOfBoundsException("Cell outside the grid: (" + x + ", " + y + ")");
+		}
+
+		int index = y * wordsPerRow + (x >>> 6);
+		if (wall) {
+			words.set(index, readWord(index) | 1L << x);
+		} else {
+			words.set(index, readWord(index) & ~(1L << x));
+		}
+	}
+
+	/**
+	 * Places walls on all cells or removes all walls, a word at a time.
+	 *
+	 * @param wall true to fill the grid with walls, false to clear it
+	 */
+	public void fill(boolean wall) {
+		for (int y = 0; y < height; y++) {
+			for (int word = 0; word < wordsPerRow; word++) {
+				long bits = word == wordsPerRow - 1 ? lastWordMask : -1L;
+				words.set(y * wordsPerRow + word, wall ? bits : 0L);
+			}
+		}
+	}
+
+	/**
+	 * Returns the wall bits of one word of a row.
+	 *
+	 * @param y    the row
+	 * @param word the index of the word within the row
+	 * @return the wall bits, bit i standing for the cell x = word * 64 + i
+	 */
+	public long getWord(int y, int word) {
+		return readWord(y * wordsPerRow + word);
+	}
+
+	/**
+	 * Returns the free cells of one word of a row. Bits beyond the width of the grid are never set.
+	 *
+	 * @param y    the row
+	 * @param word the index of the word within the row
+	 * @return the free bits, bit i standing for the cell x = word * 64 + i
+	 */
+	public long getFreeWord(int y, int word) {
+		long free = ~readWord(y * wordsPerRow + word);
+		return word == wordsPerRow - 1 ? free & lastWordMask : free;
+	}
+
+	/**
+	 * Returns the free cells of one word of a row that are horizontally or vertically adjacent to a
+	 * cell of the given set. The set uses the same layout as this grid, one row after the other.
+	 * All 64 cells of the word are handled at once: horizontal neighbours are found by shifting the
+	 * word itself and carrying the edge bits of the adjacent words, vertical neighbours by reading the
+	 * same word of the rows above and below.
+	 *
+	 * @param cells the set of cells whose neighbours are looked for
+	 * @param y     the row
+	 * @param word  the index of the word within the row
+	 * @return the free neighbours of the set within the word
+	 */
+	public long getFreeNeighbours(long[] cells, int y, int word) {
+		int index = y * wordsPerRow + word;
+		long current = cells[index];
+
+		long neighbours = (current << 1) | (current >>> 1);
+		if (word > 0) {
+			neighbours |= cells[index - 1] >>> 63;
+		}
+		if (word < wordsPerRow - 1) {
+			neighbours |= cells[index + 1] << 63;
+		}
+		if (y > 0) {
+			neighbours |= cells[index - wordsPerRow];
+		}
+		if (y < height - 1) {
+			neighbours |= cells[index + wordsPerRow];
+		}
+
+		return neighbours & getFreeWord(y, word);
+	}
+
+	/**
+	 * Counts the free cells of the grid, a word at a time.
+	 *
+	 * @return Number of cells that are not walls.
+	 */
+	public long countFree() {
+		long count = 0;
+		for (int y = 0; y < height; y++) {
+			for (int word = 0; word < wordsPerRow; word++) {
+				count += Long.bitCount(getFreeWord(y, word));
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Returns the first wall in a row at or after the given column. Walls are found a word at a time,
+	 * so runs of free cells are skipped quickly.
+	 *
+	 * @param x the column to start from
+	 * @param y the row
+	 * @return the X coordinate of the next wall, or -1 if there is none
+	 */
+	public int nextWall(int x, int y) {
+		if (x >= width) {
+			return -1;
+		}
+
+		int word = x >>> 6;
+		long bits = readWord(y * wordsPerRow + word) & (-1L << x);
+		while (true) {
+			if (bits != 0) {
+				int wallX = (word << 6) + Long.numberOfTrailingZeros(bits);
+				return wallX < width ? wallX : -1;
+			}
+			if (++word == wordsPerRow) {
+				return -1;
+			}
+			bits = readWord(y * wordsPerRow + word);
+		}
+	}
+
+	/**
+	 * Returns the array the words are kept in if they are on the heap, for code of this package that
+	 * processes many words at once.
+	 *
+	 * @return the words row after row, or null if they are not in a heap array
+	 */
+	long[] heapWords() {
+		return heapWords;
+	}
+
+	/**
+	 * Returns the word at the given index of the storage, from the heap array if there is one.
+	 *
+	 * @param index the index of the word
+	 * @return the wall bits of the word
+	 */
+	private long readWord(int index) {
+		return heapWords != null ? heapWords[index] : words.get(index);
+	}
+}
@@ -0,0 +1,58 @@
+package model;
+
+import java.util.SplittableRandom;
+
+/**
+ * WilsonGenerator carves a maze with Wilson's algorithm: starting from a tree holding a single room, it
+ * walks randomly from a room outside the tree until it hits the tree, erases the loops of the walk and
+ * adds the remaining path. Every perfect maze is produced with the same probability, so the mazes have
+ * no bias toward long corridors or short dead ends. The first walks are long, which makes it the
+ * slowest of the generators.
+ */
+public class WilsonGenerator extends MazeGenerator {
+
+	@Override
+	protected void carve(WallGrid walls, int roomsX, int roomsY, SplittableRandom random) {
+		int rooms = roomsX * roomsY;
+		boolean[] inTree = new boolean[rooms];
+
+		// Room the walk last left each room toward; later visits overwrite it, which erases the loops
+		int[] next = new int[rooms];
+		int[] options = new int[4];
+
+		int root = random.nextInt(rooms);
+		inTree[root] = true;
+		openRoom(walls, roomsX, root);
+
+		for (int start = 0; start < rooms; start++) {
+			if (inTree[start]) {
+				continue;
+			}
+
+			// Walk randomly until the tree is hit
+			int room = start;
+			while (!inTree[room]) {
+				int x = room % roomsX;
+				int y = room / roomsX;
+
+				int count = 0;
+				if (y > 0) options[count++] = room - roomsX;
+				if (y < roomsY - 1) options[count++] = room + roomsX;
+				if (x > 0) options[count++] = room - 1;
+				if (x < roomsX - 1) options[count++] = room + 1;
+
+				next[room] = options[random.nextInt(count)];
+				room = next[room];
+			}
+
+			// Add the loop-erased walk to the tree
+			room = start;
+			while (!inTree[room]) {
+				inTree[room] = true;
+				openRoom(walls, roomsX, room);
+				openPassage(walls, roomsX, room, next[room]);
+				room = next[room];
+			}
+		}
+	}
+}
@@ -0,0 +1,205 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * A windowed distance field holds the minimum number of steps from a root cell to the cells of a square
+ * window around it. It stands in for a {@link DistanceField} in mazes read in chunks, see
+ * {@link MazeFile#loadChunked}, which may be far too large for buffers of one entry per cell and whose
+ * chunks would be read over and over by a search of the whole maze.
+ * <p>
+ * The window reaches a fixed radius from the root in every direction and is clipped to the maze. Its
+ * buffers are allocated once and reused for every search, so memory and search time depend on the radius
+ * and not on the size of the maze, and only the chunks under the window are read. Paths are only followed
+ * inside the window: cells outside it count as unreachable, and a distance inside it may be longer than
+ * in the whole maze if the shortest path leaves the window. The field is searched again whenever the root
+ * moves, because the window moves along with it.
+ */
+public class WindowedDistanceField {
+
+	/**
+	 * Radius of the window if none is given.
+	 */
+	public static final int DEFAULT_RADIUS = 256;
+
+	/**
+	 * Distance value of cells that cannot be reached from the root inside the window.
+	 */
+	public static final int UNREACHABLE = DistanceField.UNREACHABLE;
+
+	// Number of cells the window reaches from the root in every direction
+	private final int radius;
+
+	// Number of steps from the root of each cell of the window, row by row from its top left corner
+	private final int[] distances;
+
+	// Cells of the window in the order the search reaches them, as positions in the window
+	private final int[] queue;
+
+	// Bounds of the window clipped to the maze, right and bottom exclusive
+	private int left;
+	private int top;
+	private int right;
+	private int bottom;
+
+	// Root and walls the field was last searched for
+	private int rootX = -1;
+	private int rootY = -1;
+	private WallGrid rootWalls;
+
+	/**
+	 * Constructs an empty field whose window reaches {@link #DEFAULT_RADIUS} cells from the root.
+	 */
+	public WindowedDistanceField() {
+		this(DEFAULT_RADIUS);
+	}
+
+	/**
+	 * Constructs an empty field whose window reaches the given number of cells from the root.
+	 *
+	 * @param radius Number of cells the window reaches from the root in every direction.
+	 * @throws IllegalArgumentException if the radius is not positive or the window is too large to be stored
+	 */
+	public WindowedDistanceField(int radius) {
+		long side = 2L * radius + 1;
+		if (radius <= 0 || side * side > Integer.MAX_VALUE - 8) {
+			throw new IllegalArgumentException("Window radius out of range: " + radius);
+		}
+		this.radius = radius;
+		this.distances = new int[(int) (side * side)];
+		this.queue = new int[(int) (side * side)];
+	}
+
+	/**
+	 * Returns the number of cells the window reaches from the root in every direction.
+	 *
+	 * @return Radius of the window.
+	 */
+	public int getRadius() {
+		return radius;
+	}
+
+	/**
+	 * Forgets the current root, so the next {@link #update} searches the window again.
+	 * Must be called after the walls were changed.
+	 */
+	public void invalidate() {
+		rootX = -1;
+		rootY = -1;
+		rootWalls = null;
+	}
+
+	/**
+	 * Brings the field up to date for the given root cell. Nothing is done if the root did not move,
+	 * otherwise the window is placed around the new root and searched. The walls must not have changed
+	 * since the last update unless {@link #invalidate()} was called.
+	 *
+	 * @param walls the grid representing the walls in the world
+	 * @param rootX the X coordinate of the root cell
+	 * @param rootY the Y coordinate of the root cell
+	 */
+	public void update(WallGrid walls, int rootX, int rootY) {
+		if (rootX == this.rootX && rootY == this.rootY && walls == rootWalls) {
+			return;
+		}
+
+		left = Math.max(0, rootX - radius);
+		top = Math.max(0, rootY - radius);
+		right = (int) Math.min(walls.getWidth(), (long) rootX + radius + 1);
+		bottom = (int) Math.min(walls.getHeight(), (long) rootY + radius + 1);
+		search(walls, rootX, rootY);
+
+		this.rootX = rootX;
+		this.rootY = rootY;
+		this.rootWalls = walls;
+	}
+
+	/**
+	 * Fills the window with a breadth-first search from the root that does not leave it.
+	 *
+	 * @param walls the grid representing the walls in the world
+	 * @param rootX the X coordinate of the root cell
+	 * @param rootY the Y coordinate of the root cell
+	 */
+	private void search(WallGrid walls, int rootX, int rootY) {
+		int windowWidth = right - left;
+		Arrays.fill(distances, 0, windowWidth * (bottom - top), UNREACHABLE);
+
+		int root = (rootY - top) * windowWidth + rootX - left;
+		distances[root] = 0;
+		int head = 0;
+		int tail = 0;
+		queue[tail++] = root;
+
+		while (head < tail) {
+			int current = queue[head++];
+			int x = current % windowWidth;
+			int y = current / windowWidth;
+			int cost = distances[current] + 1;
+
+			// Explore the four neighbours inside the window, skipping walls and cells already reached
+			if (y > 0 && distances[current - windowWidth] == UNREACHABLE && !walls.isWall(left + x, top + y - 1)) {
+				distances[current - windowWidth] = cost;
+				queue[tail++] = current - windowWidth;
+			}
+			if (y < bottom - top - 1 && distances[current + windowWidth] == UNREACHABLE && !walls.isWall(left + x, top + y + 1)) {
+				distances[current + windowWidth] = cost;
+				queue[tail++] = current + windowWidth;
+			}
+			if (x > 0 && distances[current - 1] == UNREACHABLE && !walls.isWall(left + x - 1, top + y)) {
+				distances[current - 1] = cost;
+				queue[tail++] = current - 1;
+			}
+			if (x < windowWidth - 1 && distances[current + 1] == UNREACHABLE && !walls.isWall(left + x + 1, top + y)) {
+				distances[current + 1] = cost;
+				queue[tail++] = current + 1;
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of steps from the root to the given cell inside the window.
+	 *
+	 * @param x the X coordinate of the cell
+	 * @param y the Y coordinate of the cell
+	 * @return the distance to the root, or {@link #UNREACHABLE} if the cell is outside the window or there
+	 * is no path inside it
+	 */
+	public int getDistance(int x, int y) {
+		if (rootWalls == null || x < left || x >= right || y < top || y >= bottom) {
+			return UNREACHABLE;
+		}
+		return distances[(y - top) * (right - left) + x - left];
+	}
+
+	/**
+	 * Returns the direction of the first step on a shortest path inside the window from the given cell
+	 * to the root.
+	 *
+	 * @param x the X coordinate of the cell
+	 * @param y the Y coordinate of the cell
+	 * @return the next step toward the root, or {@link Direction#NONE} if the cell is the root, outside
+	 * the window or unreachable
+	 */
+	public Direction nextDirection(int x, int y) {
+		int distance = getDistance(x, y);
+		if (distance == UNREACHABLE || distance == 0) {
+			return Direction.NONE;
+		}
+
+		// Same order of preference as the full distance field
+		if (getDistance(x, y - 1) == distance - 1) {
+			return Direction.UP;
+		}
+		if (getDistance(x, y + 1) == distance - 1) {
+			return Direction.DOWN;
+		}
+		if (getDistance(x - 1, y) == distance - 1) {
+			return Direction.LEFT;
+		}
+		if (getDistance(x + 1, y) == distance - 1) {
+			return Direction.RIGHT;
+		}
+		return Direction.NONE;
+	}
+}
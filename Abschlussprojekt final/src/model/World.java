@@ -3,7 +3,7 @@ package model;
 import view.View;
 
 import java.util.ArrayList;
-import java.util.List;
+import java.util.SplittableRandom;
 
 /**
  * Represents the game world with players, pursuers, walls, and game state management.
@@ -26,142 +26,309 @@ public class World {
 	private int playerY = 7;
 
 	// Starting and ending coordinates
-	private final int startX = 0;
-	private final int startY = 7;
-	private final int endX = 14;
-	private final int endY = 7;
-
-	// Pursuer coordinates
-	private int pursuer1X;
-	private int pursuer1Y;
-	private int pursuer2X;
-	private int pursuer2Y;
-	private int pursuer3X;
-	private int pursuer3Y;
-	private int pursuer4X;
-	private int pursuer4Y;
+	private int startX = 0;
+	private int startY = 7;
+	private int endX = 14;
+	private int endY = 7;
+
+	// Positions and state of the pursuers in play
+	private final Pursuers pursuers;
+
+	// Spawn cells of the pursuers per mode, as x and y of pursuer 1, then of pursuer 2 and so on
+	private int[][] spawns = {
+			{0, 4, 4, 3},
+			{0, 3, 4, 2, 8, 7},
+			{0, 1, 14, 2, 4, 13, 6, 7}
+	};
+
+	// Spawn cells of a swarm replacing the pursuers of every mode, null while the modes use their own
+	private int[] swarm;
 
 	// List of views observing the world
 	private final ArrayList<View> views = new ArrayList<>();
 
-	// 2D array indicating presence of walls
-	private boolean[][] walls;
+	// Packed bitset indicating presence of walls
+	private final WallGrid walls;
 
-	// Flags for pursuers to move randomly or with calculated path
-	private boolean pursuer1UseRandomMove = true;
-	private boolean pursuer2UseRandomMove = true;
-	private boolean pursuer3UseRandomMove = true;
+	// The walls as read by the views on other threads, created with the first snapshot
+	private WallGrid viewWalls;
 
 	// Index counters for modes
 	private int indexEasy = 2;
 	private int indexMedium = 1;
 
+	// Random number generator of this world for random pursuer moves, never shared between worlds
+	private SplittableRandom random;
+
+	// Decides where the walls and the distance field are kept, on the heap unless chosen otherwise
+	private final StorageAllocator allocator;
+
+	// Distance field rooted at the player, shared by all pursuers within a tick, created when first needed
+	private DistanceField playerDistances;
+
+	// Distance field of a window around the player used instead in mazes read in chunks, created when first needed
+	private WindowedDistanceField playerWindow;
+
+	// Optional precomputed first steps between all free cells, null while the distance field is used
+	private NextHopTable nextHops;
+
+	// Optional flow field rooted at the player that chasing pursuers follow, null while it is not used
+	private FlowField flowField;
+
+	// Optional pathfinder per mode that chasing pursuers search with, null while the shared searches are used
+	private final Pathfinder[] pathfinders = new Pathfinder[3];
+
 	/**
-	 * Constructs the game world with specified dimensions.
+	 * Constructs the game world with specified dimensions and a randomly seeded generator for pursuer moves.
 	 *
 	 * @param width  Width of the world grid.
 	 * @param height Height of the world grid.
 	 */
 	public World(int width, int height) {
+		this(width, height, new SplittableRandom().nextLong());
+	}
+
+	/**
+	 * Constructs the game world with specified dimensions. Games played with the same seed and the same
+	 * player moves turn out exactly the same.
+	 *
+	 * @param width  Width of the world grid.
+	 * @param height Height of the world grid.
+	 * @param seed   Seed of the generator for random pursuer moves.
+	 */
+	public World(int width, int height, long seed) {
+		this.allocator = StorageAllocator.heap();
+		this.random = new SplittableRandom(seed);
 		this.width = width;
 		this.height = height;
-		this.walls = new boolean[width][height];
+		this.walls = new WallGrid(width, height);
+		this.pursuers = new Pursuers(width, height, 4);
 
 		// Initializes the wall positions in the world grid.
-		walls[1][1] = true;
-		walls[2][1] = true;
-		walls[3][1] = true;
-		walls[3][2] = true;
-		walls[1][2] = true;
-		walls[1][3] = true;
-		walls[1][4] = true;
-		walls[1][5] = true;
-		walls[1][6] = true;
-		walls[5][0] = true;
-		walls[6][0] = true;
-		walls[5][1] = true;
-		walls[5][2] = true;
-		walls[3][4] = true;
-		walls[4][4] = true;
-		walls[5][4] = true;
-		walls[6][4] = true;
-		walls[7][4] = true;
-		walls[8][4] = true;
-		walls[0][8] = true;
-		walls[1][8] = true;
-		walls[2][8] = true;
-		walls[3][8] = true;
-		walls[3][7] = true;
-		walls[3][6] = true;
-		walls[8][0] = true;
-		walls[8][1] = true;
-		walls[8][2] = true;
-		walls[7][2] = true;
-		walls[10][2] = true;
-		walls[10][1] = true;
-		walls[10][3] = true;
-		walls[10][4] = true;
-		walls[10][5] = true;
-		walls[10][6] = true;
-		walls[9][6] = true;
-		walls[11][1] = true;
-		walls[1][10] = true;
-		walls[1][11] = true;
-		walls[1][12] = true;
-		walls[1][13] = true;
-		walls[2][10] = true;
-		walls[3][10] = true;
-		walls[4][10] = true;
-		walls[5][10] = true;
-		walls[6][10] = true;
-		walls[7][10] = true;
-		walls[7][11] = true;
-		walls[13][12] = true;
-		walls[14][12] = true;
-		walls[13][13] = true;
-		walls[11][11] = true;
-		walls[11][12] = true;
-		walls[11][13] = true;
-		walls[11][14] = true;
-		walls[9][12] = true;
-		walls[9][13] = true;
-		walls[8][13] = true;
-		walls[7][13] = true;
-		walls[6][13] = true;
-		walls[5][13] = true;
-		walls[5][12] = true;
-		walls[4][12] = true;
-		walls[3][12] = true;
-		walls[3][13] = true;
-		walls[5][6] = true;
-		walls[5][7] = true;
-		walls[5][8] = true;
-		walls[5][9] = true;
-		walls[6][6] = true;
-		walls[7][6] = true;
-		walls[7][7] = true;
-		walls[7][8] = true;
-		walls[8][8] = true;
-		walls[9][8] = true;
-		walls[10][8] = true;
-		walls[9][9] = true;
-		walls[9][10] = true;
-		walls[10][9] = true;
-		walls[11][9] = true;
-		walls[12][9] = true;
-		walls[13][9] = true;
-		walls[13][10] = true;
-		walls[12][3] = true;
-		walls[12][5] = true;
-		walls[12][6] = true;
-		walls[12][7] = true;
-		walls[12][8] = true;
-		walls[13][5] = true;
-		walls[13][3] = true;
-		walls[14][3] = true;
-		walls[13][2] = true;
-		walls[13][1] = true;
-		walls[0][2] = true;
+		walls.setWall(1, 1, true);
+		walls.setWall(2, 1, true);
+		walls.setWall(3, 1, true);
+		walls.setWall(3, 2, true);
+		walls.setWall(1, 2, true);
+		walls.setWall(1, 3, true);
+		walls.setWall(1, 4, true);
+		walls.setWall(1, 5, true);
+		walls.setWall(1, 6, true);
+		walls.setWall(5, 0, true);
+		walls.setWall(6, 0, true);
+		walls.setWall(5, 1, true);
+		walls.setWall(5, 2, true);
+		walls.setWall(3, 4, true);
+		walls.setWall(4, 4, true);
+		walls.setWall(5, 4, true);
+		walls.setWall(6, 4, true);
+		walls.setWall(7, 4, true);
+		walls.setWall(8, 4, true);
+		walls.setWall(0, 8, true);
+		walls.setWall(1, 8, true);
+		walls.setWall(2, 8, true);
+		walls.setWall(3, 8, true);
+		walls.setWall(3, 7, true);
+		walls.setWall(3, 6, true);
+		walls.setWall(8, 0, true);
+		walls.setWall(8, 1, true);
+		walls.setWall(8, 2, true);
+		walls.setWall(7, 2, true);
+		walls.setWall(10, 2, true);
+		walls.setWall(10, 1, true);
+		walls.setWall(10, 3, true);
+		walls.setWall(10, 4, true);
+		walls.setWall(10, 5, true);
+		walls.setWall(10, 6, true);
+		walls.setWall(9, 6, true);
+		walls.setWall(11, 1, true);
+		walls.setWall(1, 10, true);
+		walls.setWall(1, 11, true);
+		walls.setWall(1, 12, true);
+		walls.setWall(1, 13, true);
+		walls.setWall(2, 10, true);
+		walls.setWall(3, 10, true);
+		walls.setWall(4, 10, true);
+		walls.setWall(5, 10, true);
+		walls.setWall(6, 10, true);
+		walls.setWall(7, 10, true);
+		walls.setWall(7, 11, true);
+		walls.setWall(13, 12, true);
+		walls.setWall(14, 12, true);
+		walls.setWall(13, 13, true);
+		walls.setWall(11, 11, true);
+		walls.setWall(11, 12, true);
+		walls.setWall(11, 13, true);
+		walls.setWall(11, 14, true);
+		walls.setWall(9, 12, true);
+		walls.setWall(9, 13, true);
+		walls.setWall(8, 13, true);
+		walls.setWall(7, 13, true);
+		walls.setWall(6, 13, true);
+		walls.setWall(5, 13, true);
+		walls.setWall(5, 12, true);
+		walls.setWall(4, 12, true);
+		walls.setWall(3, 12, true);
+		walls.setWall(3, 13, true);
+		walls.setWall(5, 6, true);
+		walls.setWall(5, 7, true);
+		walls.setWall(5, 8, true);
+		walls.setWall(5, 9, true);
+		walls.setWall(6, 6, true);
+		walls.setWall(7, 6, true);
+		walls.setWall(7, 7, true);
+		walls.setWall(7, 8, true);
+		walls.setWall(8, 8, true);
+		walls.setWall(9, 8, true);
+		walls.setWall(10, 8, true);
+		walls.setWall(9, 9, true);
+		walls.setWall(9, 10, true);
+		walls.setWall(10, 9, true);
+		walls.setWall(11, 9, true);
+		walls.setWall(12, 9, true);
+		walls.setWall(13, 9, true);
+		walls.setWall(13, 10, true);
+		walls.setWall(12, 3, true);
+		walls.setWall(12, 5, true);
+		walls.setWall(12, 6, true);
+		walls.setWall(12, 7, true);
+		walls.setWall(12, 8, true);
+		walls.setWall(13, 5, true);
+		walls.setWall(13, 3, true);
+		walls.setWall(14, 3, true);
+		walls.setWall(13, 2, true);
+		walls.setWall(13, 1, true);
+		walls.setWall(0, 2, true);
+	}
+
+	/**
+	 * Constructs a game world of any size filled with a maze from the given generator. The entrance lies
+	 * on the left border and the exit on the right border, the pursuers spawn in random rooms away from
+	 * the entrance. The same generator and seed always produce the same world and the same games.
+	 *
+	 * @param width     Width of the world grid, at least 3.
+	 * @param height    Height of the world grid, at least 3.
+	 * @param generator Generator carving the maze.
+	 * @param seed      Seed of the maze, the spawn cells and the random pursuer moves.
+	 * @throws IllegalArgumentException if the world is too small or too large for a maze
+	 */
+	public World(int width, int height, MazeGenerator generator, long seed) {
+		this(width, height, generator, seed, StorageAllocator.heap());
+	}
+
+	/**
+	 * Constructs a game world filled with a maze like {@link #World(int, int, MazeGenerator, long)}, keeping
+	 * the walls and the distance field in storage from the given allocator, e.g. off the heap.
+	 *
+	 * @param width     Width of the world grid, at least 3.
+	 * @param height    Height of the world grid, at least 3.
+	 * @param generator Generator carving the maze.
+	 * @param seed      Seed of the maze, the spawn cells and the random pursuer moves.
+	 * @param allocator Allocator of the walls and the distance field.
+	 * @throws IllegalArgumentException if the world is too small or too large for a maze
+	 */
+	public World(int width, int height, MazeGenerator generator, long seed, StorageAllocator allocator) {
+		SplittableRandom mazeRandom = new SplittableRandom(seed);
+		this.allocator = allocator;
+		this.width = width;
+		this.height = height;
+		this.walls = new WallGrid(width, height, allocator.allocateLongs(WallGrid.getWordCount(width, height)));
+		this.pursuers = new Pursuers(width, height, 4);
+
+		generator.generate(walls, mazeRandom);
+		int roomsX = MazeGenerator.getRoomsX(walls);
+		int roomsY = MazeGenerator.getRoomsY(walls);
+
+		// Open the entrance next to the first room and the exit next to the last one
+		startX = 0;
+		startY = 1;
+		endX = width - 1;
+		endY = 2 * roomsY - 1;
+		walls.setWall(startX, startY, false);
+		for (int x = 2 * roomsX; x <= endX; x++) {
+			walls.setWall(x, endY, false);
+		}
+
+		playerX = startX;
+		playerY = startY;
+
+		spawns = new int[3][];
+		for (int mode = 1; mode <= 3; mode++) {
+			spawns[mode - 1] = randomSpawns(mode + 1, roomsX, roomsY, mazeRandom);
+		}
+
+		this.random = mazeRandom.split();
+	}
+
+	/**
+	 * Constructs a game world from a level loaded with {@link MazeFile#load}. The world reads the walls
+	 * of the level without copying them, so several worlds can play the same level at once, also on
+	 * different threads: a level loaded in chunks gives every world its own cache of chunks, see
+	 * {@link MazeFile#openWalls()}.
+	 *
+	 * @param level the level to play
+	 * @param seed  Seed of the generator for random pursuer moves.
+	 */
+	public World(MazeFile level, long seed) {
+		this(level, seed, StorageAllocator.heap());
+	}
+
+	/**
+	 * Constructs a game world from a loaded level like {@link #World(MazeFile, long)}, keeping the distance
+	 * field in storage from the given allocator, e.g. off the heap.
+	 *
+	 * @param level     the level to play
+	 * @param seed      Seed of the generator for random pursuer moves.
+	 * @param allocator Allocator of the distance field.
+	 */
+	public World(MazeFile level, long seed, StorageAllocator allocator) {
+		this.allocator = allocator;
+		this.random = new SplittableRandom(seed);
+		this.width = level.getWidth();
+		this.height = level.getHeight();
+		this.walls = level.openWalls();
+		this.pursuers = new Pursuers(width, height, 4);
+
+		startX = level.getStartX();
+		startY = level.getStartY();
+		endX = level.getEndX();
+		endY = level.getEndY();
+		playerX = startX;
+		playerY = startY;
+
+		spawns = new int[3][];
+		for (int mode = 1; mode <= 3; mode++) {
+			spawns[mode - 1] = level.getSpawns(mode);
+		}
+	}
+
+	/**
+	 * Chooses random rooms for the given number of pursuers. Rooms at least a quarter of the maze away
+	 * from the entrance are preferred, so a game does not end on the first move.
+	 *
+	 * @param pursuers Number of pursuers to place.
+	 * @param roomsX   Number of rooms per row.
+	 * @param roomsY   Number of rows of rooms.
+	 * @param random   Generator the rooms are drawn from.
+	 * @return the spawn cells, as x and y of pursuer 1, then of pursuer 2 and so on
+	 */
+	private static int[] randomSpawns(int pursuers, int roomsX, int roomsY, SplittableRandom random) {
+		int minDistance = (roomsX + roomsY) / 4;
+		int[] cells = new int[2 * pursuers];
+
+		for (int i = 0; i < pursuers; i++) {
+			int roomX;
+			int roomY;
+			int attempts = 0;
+			do {
+				roomX = random.nextInt(roomsX);
+				roomY = random.nextInt(roomsY);
+			} while (roomX + roomY < minDistance && ++attempts < 64);
+
+			cells[2 * i] = 2 * roomX + 1;
+			cells[2 * i + 1] = 2 * roomY + 1;
+		}
+		return cells;
 	}
 
 	///////////////////////////////////////////////////////////////////////////// Getters and Setters
@@ -269,172 +436,302 @@ public class World {
 	}
 
 	/**
-	 * Returns the 2D array representing the positions of walls.
+	 * Returns the spawn cells of the pursuers in the given mode.
 	 *
-	 * @return 2D array of boolean indicating wall positions.
+	 * @param mode 1 for easy, 2 for medium, 3 for difficult mode
+	 * @return a copy of the spawn cells, as x and y of pursuer 1, then of pursuer 2 and so on
 	 */
-	public boolean[][] getWalls() {
+	public int[] getSpawns(int mode) {
+		return spawns[mode - 1].clone();
+	}
+
+	/**
+	 * Returns the grid representing the positions of walls.
+	 *
+	 * @return Grid indicating wall positions.
+	 */
+	public WallGrid getWalls() {
 		return walls;
 	}
 
 	/**
-	 * Returns the X coordinate of pursuer 1.
+	 * Returns the distance field engine owned by this world, creating it on first use.
+	 * The field is rooted at whatever cell it was last updated from. Mazes read in chunks have none,
+	 * their pursuers use {@link #getWindowedDistanceField()} instead.
+	 *
+	 * @return the distance field of this world.
+	 * @throws IllegalStateException if the walls are read in chunks, see {@link WallGrid#isChunked()}
+	 */
+	public DistanceField getDistanceField() {
+		if (walls.isChunked()) {
+			throw new IllegalStateException("No distance field over all " + width + "x" + height + " cells of a maze read in chunks");
+		}
+		if (playerDistances == null) {
+			playerDistances = new DistanceField(width, height, allocator);
+		}
+		return playerDistances;
+	}
+
+	/**
+	 * Returns the distance field of a window around the player that chasing pursuers follow in mazes read
+	 * in chunks, creating it on first use. Pursuers outside the window wait until the player comes closer.
+	 *
+	 * @return the windowed distance field of this world.
+	 */
+	public WindowedDistanceField getWindowedDistanceField() {
+		if (playerWindow == null) {
+			playerWindow = new WindowedDistanceField();
+		}
+		return playerWindow;
+	}
+
+	/**
+	 * Returns the allocator deciding where this world keeps its walls and distance field.
+	 *
+	 * @return the storage allocator of this world
+	 */
+	public StorageAllocator getStorageAllocator() {
+		return allocator;
+	}
+
+	/**
+	 * Restarts the generator for random pursuer moves from the given seed. Resetting the game afterwards
+	 * and replaying the same player moves replays the game exactly.
 	 *
-	 * @return X coordinate of pursuer 1.
+	 * @param seed Seed of the generator for random pursuer moves.
 	 */
-	public int getPursuer1X() {
-		return pursuer1X;
+	public void setSeed(long seed) {
+		random = new SplittableRandom(seed);
 	}
 
 	/**
-	 * Sets the X coordinate of pursuer 1 and ensures it stays within bounds.
+	 * Returns whether pursuers look up their steps in a precomputed {@link NextHopTable}.
 	 *
-	 * @param pursuer1X New X coordinate of pursuer 1.
+	 * @return true if a next-hop table is in use, otherwise false
 	 */
-	public void setPursuer1X(int pursuer1X) {
-		pursuer1X = Math.max(0, pursuer1X);
-		pursuer1X = Math.min(getWidth() - 1, pursuer1X);
-		this.pursuer1X = pursuer1X;
+	public boolean getPrecomputedPaths() {
+		return nextHops != null;
 	}
 
 	/**
-	 * Returns the Y coordinate of pursuer 1.
+	 * Enables or disables the precomputed {@link NextHopTable} for pursuer moves.
+	 * The table is only built for mazes small enough for it; for larger mazes the pursuers
+	 * keep using the distance field, which {@link #getPrecomputedPaths()} reports.
 	 *
-	 * @return Y coordinate of pursuer 1.
+	 * @param value true to precompute the paths if the maze allows it, false to search on-line
 	 */
-	public int getPursuer1Y() {
-		return pursuer1Y;
+	public void setPrecomputedPaths(boolean value) {
+		if (value && NextHopTable.canBuild(walls)) {
+			if (nextHops == null) {
+				nextHops = new NextHopTable(walls);
+			}
+		} else {
+			nextHops = null;
+		}
 	}
 
 	/**
-	 * Sets the Y coordinate of pursuer 1 and ensures it stays within bounds.
+	 * Returns whether chasing pursuers follow a {@link FlowField} rooted at the player.
 	 *
-	 * @param pursuer1Y New Y coordinate of pursuer 1.
+	 * @return true if flow-field steering is in use, otherwise false
 	 */
-	public void setPursuer1Y(int pursuer1Y) {
-		pursuer1Y = Math.max(0, pursuer1Y);
-		pursuer1Y = Math.min(getHeight() - 1, pursuer1Y);
-		this.pursuer1Y = pursuer1Y;
+	public boolean getFlowSteering() {
+		return flowField != null;
 	}
 
 	/**
-	 * Returns the X coordinate of pursuer 2.
+	 * Enables or disables flow-field steering. While enabled, every move of the player rebuilds a
+	 * {@link FlowField} once for all pursuers, and every chasing pursuer follows the arrow under it. The
+	 * rebuild visits the whole maze, so this pays off for large crowds in small mazes, while the repaired
+	 * distance field stays cheaper for large mazes. It takes precedence over the precomputed paths.
+	 * Mazes read in chunks get no flow field, which {@link #getFlowSteering()} reports.
 	 *
-	 * @return X coordinate of pursuer 2.
+	 * @param value true to steer the pursuers with a flow field if the maze allows it, false to use the
+	 *              other searches
 	 */
-	public int getPursuer2X() {
-		return pursuer2X;
+	public void setFlowSteering(boolean value) {
+		if (value && !walls.isChunked()) {
+			if (flowField == null) {
+				flowField = new FlowField(width, height);
+			}
+		} else {
+			flowField = null;
+		}
 	}
 
 	/**
-	 * Sets the X coordinate of pursuer 2 and ensures it stays within bounds.
+	 * Returns the pathfinder chasing pursuers use in the given mode.
 	 *
-	 * @param pursuer2X New X coordinate of pursuer 2.
+	 * @param mode 2 for medium, 3 for difficult mode
+	 * @return the pathfinder, or null if the mode uses the shared distance field
+	 * @throws IllegalArgumentException if the mode is not 2 or 3
 	 */
-	public void setPursuer2X(int pursuer2X) {
-		pursuer2X = Math.max(0, pursuer2X);
-		pursuer2X = Math.min(getWidth() - 1, pursuer2X);
-		this.pursuer2X = pursuer2X;
+	public Pathfinder getPathfinder(int mode) {
+		checkChaseMode(mode);
+		return pathfinders[mode - 1];
 	}
 
 	/**
-	 * Returns the Y coordinate of pursuer 2.
+	 * Sets the pathfinder chasing pursuers use in the given mode. Each pursuer then runs its own search
+	 * toward the player on every move instead of reading the distance field shared by all pursuers, so
+	 * the expanded nodes of the pathfinder measure the search work of the mode. The pathfinder is prepared
+	 * for the walls of this world here, so e.g. the graph of a {@link HierarchicalPathfinder} is built by the
+	 * caller and not in the middle of a tick; call this before the game loop starts. The flow field and the
+	 * precomputed paths take precedence if they are in use.
 	 *
-	 * @return Y coordinate of pursuer 2.
+	 * @param mode       2 for medium, 3 for difficult mode
+	 * @param pathfinder the pathfinder, or null to use the shared distance field again
+	 * @throws IllegalArgumentException if the mode is not 2 or 3, or the pathfinder cannot search the
+	 *                                  walls of this world, e.g. a {@link GridPathfinder} in a maze read in chunks
 	 */
-	public int getPursuer2Y() {
-		return pursuer2Y;
+	public void setPathfinder(int mode, Pathfinder pathfinder) {
+		checkChaseMode(mode);
+		if (pathfinder != null) {
+			pathfinder.prepare(walls);
+		}
+		pathfinders[mode - 1] = pathfinder;
 	}
 
 	/**
-	 * Sets the Y coordinate of pursuer 2 and ensures it stays within bounds.
+	 * Checks that pursuers chase the player in the given mode; in easy mode they only move randomly.
 	 *
-	 * @param pursuer2Y New Y coordinate of pursuer 2.
+	 * @param mode the mode to check
+	 * @throws IllegalArgumentException if the mode is not 2 or 3
 	 */
-	public void setPursuer2Y(int pursuer2Y) {
-		pursuer2Y = Math.max(0, pursuer2Y);
-		pursuer2Y = Math.min(getHeight() - 1, pursuer2Y);
-		this.pursuer2Y = pursuer2Y;
+	private static void checkChaseMode(int mode) {
+		if (mode != 2 && mode != 3) {
+			throw new IllegalArgumentException("No chasing pursuers in mode: " + mode);
+		}
 	}
 
 	/**
-	 * Returns the X coordinate of pursuer 3.
+	 * Returns the number of pursuers in play, which depends on the mode or the swarm.
 	 *
-	 * @return X coordinate of pursuer 3.
+	 * @return Number of pursuers.
 	 */
-	public int getPursuer3X() {
-		return pursuer3X;
+	public int getPursuerCount() {
+		return pursuers.getCount();
 	}
 
 	/**
-	 * Sets the X coordinate of pursuer 3 and ensures it stays within bounds.
+	 * Returns the X coordinate of a pursuer.
 	 *
-	 * @param pursuer3X New X coordinate of pursuer 3.
+	 * @param index the index of the pursuer, from 0 to {@link #getPursuerCount()} - 1
+	 * @return X coordinate of the pursuer.
 	 */
-	public void setPursuer3X(int pursuer3X) {
-		pursuer3X = Math.max(0, pursuer3X);
-		pursuer3X = Math.min(getWidth() - 1, pursuer3X);
-		this.pursuer3X = pursuer3X;
+	public int getPursuerX(int index) {
+		return pursuers.getX(index);
 	}
 
 	/**
-	 * Returns the Y coordinate of pursuer 3.
+	 * Returns the Y coordinate of a pursuer.
 	 *
-	 * @return Y coordinate of pursuer 3.
+	 * @param index the index of the pursuer, from 0 to {@link #getPursuerCount()} - 1
+	 * @return Y coordinate of the pursuer.
 	 */
-	public int getPursuer3Y() {
-		return pursuer3Y;
+	public int getPursuerY(int index) {
+		return pursuers.getY(index);
+	}
+
+	/**
+	 * Takes an immutable copy of the state the views draw. Must be called on the thread that changes the
+	 * world; the snapshot can then be read on any thread. The walls in the snapshot are a grid of their
+	 * own if reading the world's grid is not thread-safe, see {@link WallGrid#copyForThread()}, and the
+	 * same for all snapshots of the world.
+	 *
+	 * @return the snapshot of the current state
+	 */
+	public WorldSnapshot snapshot() {
+		if (viewWalls == null) {
+			viewWalls = walls.copyForThread();
+		}
+
+		int count = pursuers.getCount();
+		int[] xs = new int[count];
+		int[] ys = new int[count];
+		for (int i = 0; i < count; i++) {
+			xs[i] = pursuers.getX(i);
+			ys[i] = pursuers.getY(i);
+		}
+		return new WorldSnapshot(this, viewWalls, xs, ys);
 	}
 
 	/**
-	 * Sets the Y coordinate of pursuer 3 and ensures it stays within bounds.
+	 * Sets the coordinates of a pursuer and ensures they stay within bounds.
 	 *
-	 * @param pursuer3Y New Y coordinate of pursuer 3.
+	 * @param index    the index of the pursuer, from 0 to {@link #getPursuerCount()} - 1
+	 * @param pursuerX New X coordinate of the pursuer.
+	 * @param pursuerY New Y coordinate of the pursuer.
 	 */
-	public void setPursuer3Y(int pursuer3Y) {
-		pursuer3Y = Math.max(0, pursuer3Y);
-		pursuer3Y = Math.min(getHeight() - 1, pursuer3Y);
-		this.pursuer3Y = pursuer3Y;
+	public void setPursuer(int index, int pursuerX, int pursuerY) {
+		pursuerX = Math.max(0, Math.min(getWidth() - 1, pursuerX));
+		pursuerY = Math.max(0, Math.min(getHeight() - 1, pursuerY));
+		pursuers.set(index, pursuerX, pursuerY);
 	}
 
 	/**
-	 * Returns the X coordinate of pursuer 4.
+	 * Returns whether any pursuer stands on the given cell. Takes constant time however many pursuers
+	 * there are.
 	 *
-	 * @return X coordinate of pursuer 4.
+	 * @param x the X coordinate of the cell
+	 * @param y the Y coordinate of the cell
+	 * @return true if a pursuer is on the cell, otherwise false
 	 */
-	public int getPursuer4X() {
-		return pursuer4X;
+	public boolean isPursuerAt(int x, int y) {
+		return pursuers.isAt(x, y);
 	}
 
 	/**
-	 * Sets the X coordinate of pursuer 4 and ensures it stays within bounds.
+	 * Returns the size of the swarm replacing the pursuers of every mode.
 	 *
-	 * @param pursuer4X New X coordinate of pursuer 4.
+	 * @return Number of pursuers in the swarm, 0 if the modes use their own pursuers.
 	 */
-	public void setPursuer4X(int pursuer4X) {
-		pursuer4X = Math.max(0, pursuer4X);
-		pursuer4X = Math.min(getWidth() - 1, pursuer4X);
-		this.pursuer4X = pursuer4X;
+	public int getSwarmSize() {
+		return swarm == null ? 0 : swarm.length / 2;
 	}
 
 	/**
-	 * Returns the Y coordinate of pursuer 4.
+	 * Replaces the pursuers of every mode by a swarm of the given size on random free cells. Cells far from
+	 * the start are preferred, so a game does not end on the first move. The mode still decides how the
+	 * pursuers move. The swarm takes the field when the pursuers are next placed, i.e. when a mode is
+	 * selected or the game is restarted.
 	 *
-	 * @return Y coordinate of pursuer 4.
+	 * @param size Number of pursuers in the swarm, 0 to return to the pursuers of the modes.
+	 * @throws IllegalArgumentException if the size is negative
 	 */
-	public int getPursuer4Y() {
-		return pursuer4Y;
+	public void setSwarmSize(int size) {
+		if (size < 0) {
+			throw new IllegalArgumentException("Negative swarm size: " + size);
+		}
+		swarm = size == 0 ? null : randomFreeCells(size, random.split());
 	}
 
 	/**
-	 * Sets the Y coordinate of pursuer 4 and ensures it stays within bounds.
+	 * Chooses random free cells other than the start, preferring cells at least a quarter of the world
+	 * away from the start.
 	 *
-	 * @param pursuer4Y New Y coordinate of pursuer 4.
+	 * @param count  Number of cells to choose.
+	 * @param random Generator the cells are drawn from.
+	 * @return the cells, as x and y of the first cell, then of the second and so on
 	 */
-	public void setPursuer4Y(int pursuer4Y) {
-		pursuer4Y = Math.max(0, pursuer4Y);
-		pursuer4Y = Math.min(getHeight() - 1, pursuer4Y);
-		this.pursuer4Y = pursuer4Y;
+	private int[] randomFreeCells(int count, SplittableRandom random) {
+		int minDistance = (width + height) / 4;
+		int[] cells = new int[2 * count];
+
+		for (int i = 0; i < count; i++) {
+			int x;
+			int y;
+			int attempts = 0;
+			do {
+				x = random.nextInt(width);
+				y = random.nextInt(height);
+			} while (walls.isWall(x, y) || (x == startX && y == startY)
+					|| (Math.abs(x - startX) + Math.abs(y - startY) < minDistance && ++attempts < 64));
+
+			cells[2 * i] = x;
+			cells[2 * i + 1] = y;
+		}
+		return cells;
 	}
 
 	/**
@@ -463,49 +760,39 @@ public class World {
 	 * - Updates all registered views with the new game state.
 	 */
 	public void restartGame() {
+		resetGame();
+
+		// Update all views with the new game state
+		updateViews();
+	}
+
+	/**
+	 * Resets the game state to the beginning like {@link #restartGame()}, without notifying the views.
+	 */
+	public void resetGame() {
 		playerX = startX;
 		playerY = startY;
 
 		// Reset pursuer positions based on the selected mode
 		if (getMode1()) {
-			setPursuer1X(0);
-			setPursuer1Y(4);
-
-			setPursuer2X(4);
-			setPursuer2Y(3);
+			easyMode();
 		}
 
 		if (getMode2()) {
-			setPursuer1X(0);
-			setPursuer1Y(3);
-
-			setPursuer2X(4);
-			setPursuer2Y(2);
-
-			setPursuer3X(8);
-			setPursuer3Y(7);
+			mediumMode();
 		}
 
 		if (getMode3()) {
-			setPursuer1X(0);
-			setPursuer1Y(1);
-
-			setPursuer2X(14);
-			setPursuer2Y(2);
-
-			setPursuer3X(4);
-			setPursuer3Y(13);
-
-			setPursuer4X(6);
-			setPursuer4Y(7);
+			difficultMode();
 		}
 
 		// Reset game outcome flags
 		win = false;
 		lost = false;
 
-		// Update all views with the new game state
-		updateViews();
+		// Reset the pacing of the pursuers, so every game starts the same way
+		indexEasy = 2;
+		indexMedium = 1;
 	}
 
 	/**
@@ -521,7 +808,7 @@ public class World {
 	 * Checks if the game lost condition is met (player is caught by pursuers).
 	 */
 	public void checkGameLost() {
-		if ((playerX == pursuer1X && playerY == pursuer1Y) || (playerX == pursuer2X && playerY == pursuer2Y) || (playerX == pursuer3X && playerY == pursuer3Y) || (playerX == pursuer4X && playerY == pursuer4Y)) {
+		if (pursuers.isAt(playerX, playerY)) {
 			lost = true;
 		}
 	}
@@ -591,46 +878,59 @@ public class World {
 		updateViews();
 	}
 
+	/**
+	 * Switches to the given difficulty and places the pursuers for it, without notifying the views.
+	 * Used to set up games that run without a display.
+	 *
+	 * @param mode 1 for easy, 2 for medium, 3 for difficult mode
+	 * @throws IllegalArgumentException if the mode is not 1, 2 or 3
+	 */
+	public void selectMode(int mode) {
+		if (mode < 1 || mode > 3) {
+			throw new IllegalArgumentException("Unknown mode: " + mode);
+		}
+
+		mode1 = mode == 1;
+		mode2 = mode == 2;
+		mode3 = mode == 3;
+
+		if (mode1) {
+			easyMode();
+		} else if (mode2) {
+			mediumMode();
+		} else {
+			difficultMode();
+		}
+	}
+
 	/**
 	 * Sets pursuers' positions for easy mode.
 	 */
 	public void easyMode() {
-		setPursuer1X(0);
-		setPursuer1Y(4);
-
-		setPursuer2X(4);
-		setPursuer2Y(3);
+		placePursuers(1);
 	}
 
 	/**
 	 * Sets pursuers' positions for medium mode.
 	 */
 	public void mediumMode() {
-		setPursuer1X(0);
-		setPursuer1Y(3);
-
-		setPursuer2X(4);
-		setPursuer2Y(2);
-
-		setPursuer3X(8);
-		setPursuer3Y(7);
+		placePursuers(2);
 	}
 
 	/**
 	 * Sets pursuers' positions for difficult mode.
 	 */
 	public void difficultMode() {
-		setPursuer1X(0);
-		setPursuer1Y(1);
-
-		setPursuer2X(14);
-		setPursuer2Y(2);
-
-		setPursuer3X(4);
-		setPursuer3Y(13);
+		placePursuers(3);
+	}
 
-		setPursuer4X(6);
-		setPursuer4Y(7);
+	/**
+	 * Places the pursuers of the given mode on their spawn cells, or the swarm if one is set.
+	 *
+	 * @param mode 1 for easy, 2 for medium, 3 for difficult mode
+	 */
+	private void placePursuers(int mode) {
+		pursuers.place(swarm != null ? swarm : spawns[mode - 1]);
 	}
 
 	///////////////////////////////////////////////////////////////////////////// Player Management
@@ -643,27 +943,122 @@ public class World {
 	 * @param direction the direction in which to move the player
 	 */
 	public void movePlayer(Direction direction) {
-
-		if (win || lost) {
+		if (tick(direction) || win || lost) {
 			updateViews();
-			return;
 		}
+	}
 
-		if (!getMode1() && !getMode2() && !getMode3()) {
-			return;
+	/**
+	 * Advances the game by one step like {@link #movePlayer(Direction)}, without notifying the views:
+	 * moves the player if the move is valid, then the pursuers according to the current game mode.
+	 *
+	 * @param direction the direction in which to move the player
+	 * @return true if a step was made, false if the game is over or no mode is selected
+	 */
+	public boolean tick(Direction direction) {
+		if (!isRunning()) {
+			return false;
+		}
+
+		applyPlayerMove(direction);
+		movePursuers();
+
+		// Check game win and lost conditions
+		checkGameWin();
+		checkGameLost();
+
+		return true;
+	}
+
+	/**
+	 * Moves only the player if the move is valid and checks whether the game is won or lost, without
+	 * notifying the views. Together with {@link #stepPursuers()} this lets the player and the pursuers
+	 * move at their own pace, e.g. the player on every key press and the pursuers on a clock.
+	 *
+	 * @param direction the direction in which to move the player
+	 * @return true if a step was made, false if the game is over or no mode is selected
+	 */
+	public boolean stepPlayer(Direction direction) {
+		if (!isRunning()) {
+			return false;
 		}
 
-		if (!walls[getPlayerX() + direction.deltaX][getPlayerY() + direction.deltaY]) {
+		applyPlayerMove(direction);
+
+		checkGameWin();
+		checkGameLost();
+
+		return true;
+	}
+
+	/**
+	 * Moves only the pursuers according to the current game mode and checks whether the game is won or
+	 * lost, without notifying the views. The pacing of the mode applies to these steps: in easy mode the
+	 * pursuers move on every third step, in medium mode on every second.
+	 *
+	 * @return true if a pursuer moved or the game was won or lost, false if nothing the views show
+	 *         changed, e.g. because the game is over, no mode is selected or the pursuers waited
+	 */
+	public boolean stepPursuers() {
+		if (!isRunning()) {
+			return false;
+		}
+
+		long moves = pursuers.getMoveCount();
+
+		movePursuers();
+
+		checkGameWin();
+		checkGameLost();
+
+		return pursuers.getMoveCount() != moves || win || lost;
+	}
+
+	/**
+	 * Returns whether a game is in progress, i.e. a mode is selected and the game is neither won nor lost.
+	 *
+	 * @return true if steps can be made, otherwise false
+	 */
+	public boolean isRunning() {
+		return !win && !lost && (getMode1() || getMode2() || getMode3());
+	}
+
+	/**
+	 * Moves the player in the specified direction if the move is valid.
+	 *
+	 * @param direction the direction in which to move the player
+	 */
+	private void applyPlayerMove(Direction direction) {
+		if (!walls.isWall(getPlayerX() + direction.deltaX, getPlayerY() + direction.deltaY)) {
 			setPlayerX(getPlayerX() + direction.deltaX);
 			setPlayerY(getPlayerY() + direction.deltaY);
 		}
+	}
+
+	///////////////////////////////////////////////////////////////////////////// Pursuer Management
+
+	/**
+	 * Moves the pursuers one step according to the current game mode, unless they have caught the
+	 * player already.
+	 */
+	private void movePursuers() {
+		// Bring the player's distance field up to date, after a single player move this is only a repair.
+		// A flow field is rebuilt instead, once for all pursuers.
+		if ((mode2 || mode3) && flowField != null) {
+			flowField.update(walls, getPlayerX(), getPlayerY());
+		} else if ((mode2 || mode3) && nextHops == null && getActivePathfinder() == null) {
+			if (walls.isChunked()) {
+				getWindowedDistanceField().update(walls, getPlayerX(), getPlayerY());
+			} else {
+				getDistanceField().update(walls, getPlayerX(), getPlayerY());
+			}
+		}
 
 		if (mode1 && !mode2 && !mode3) {
 			checkGameLost();
 			if (!getLost()) {
 				if (indexEasy == 2) {
-					movePursuer1(Direction.getRandomDirection());
-					movePursuer2(Direction.getRandomDirection());
+					pursuers.moveRandomly(walls, random);
 					indexEasy -= 3;
 				}
 			}
@@ -674,31 +1069,7 @@ public class World {
 			checkGameLost();
 			if (!getLost()) {
 				if (indexMedium == 1) {
-					if (pursuer1UseRandomMove) {
-						movePursuer1(Direction.getRandomDirection());
-					} else {
-						List<Direction> path1 = Direction.dijkstraDirections(this, new int[]{getPlayerX(), getPlayerY()}, new int[]{getPursuer1X(), getPursuer1Y()}, getWalls());
-						movePursuer1(path1.get(0));
-					}
-
-					if (pursuer2UseRandomMove) {
-						movePursuer2(Direction.getRandomDirection());
-					} else {
-						List<Direction> path2 = Direction.dijkstraDirections(this, new int[]{getPlayerX(), getPlayerY()}, new int[]{getPursuer2X(), getPursuer2Y()}, getWalls());
-						movePursuer2(path2.get(0));
-					}
-
-					if (pursuer3UseRandomMove) {
-						movePursuer3(Direction.getRandomDirection());
-					} else {
-						List<Direction> path3 = Direction.dijkstraDirections(this, new int[]{getPlayerX(), getPlayerY()}, new int[]{getPursuer3X(), getPursuer3Y()}, getWalls());
-						movePursuer3(path3.get(0));
-					}
-
-					pursuer1UseRandomMove = !pursuer1UseRandomMove;
-					pursuer2UseRandomMove = !pursuer2UseRandomMove;
-					pursuer3UseRandomMove = !pursuer3UseRandomMove;
-
+					alternateMoves();
 					indexMedium -= 2;
 				}
 			}
@@ -708,82 +1079,89 @@ public class World {
 		} else if (!mode1 && !mode2 && mode3) {
 			checkGameLost();
 			if (!getLost()) {
-				List<Direction> path1 = Direction.dijkstraDirections(this, new int[]{getPlayerX(), getPlayerY()}, new int[]{getPursuer1X(), getPursuer1Y()}, getWalls());
-				movePursuer1(path1.get(0));
-
-				List<Direction> path2 = Direction.dijkstraDirections(this, new int[]{getPlayerX(), getPlayerY()}, new int[]{getPursuer2X(), getPursuer2Y()}, getWalls());
-				movePursuer2(path2.get(0));
-
-				List<Direction> path3 = Direction.dijkstraDirections(this, new int[]{getPlayerX(), getPlayerY()}, new int[]{getPursuer3X(), getPursuer3Y()}, getWalls());
-				movePursuer3(path3.get(0));
-
-				List<Direction> path4 = Direction.dijkstraDirections(this, new int[]{getPlayerX(), getPlayerY()}, new int[]{getPursuer4X(), getPursuer4Y()}, getWalls());
-				movePursuer4(path4.get(0));
+				// The field updated after the player's move serves every pursuer
+				chasePlayer();
 			}
 		}
-
-		// Check game win and lost conditions
-		checkGameWin();
-		checkGameLost();
-
-		updateViews();
 	}
 
-	///////////////////////////////////////////////////////////////////////////// Pursuer Management
-
 	/**
-	 * Moves pursuer 1 in the specified direction if the move is valid.
+	 * Returns the pathfinder set for the current mode.
 	 *
-	 * @param direction the direction in which to move pursuer 1
+	 * @return the pathfinder, or null if the current mode has none or no pursuers chase the player
 	 */
-	public void movePursuer1(Direction direction) {
-		if ((getPursuer1X() + direction.deltaX) >= 0 && (getPursuer1X() + direction.deltaX) < walls.length && (getPursuer1Y() + direction.deltaY) >= 0 && (getPursuer1Y() + direction.deltaY) < walls[0].length) {
-			if (!walls[getPursuer1X() + direction.deltaX][getPursuer1Y() + direction.deltaY]) {
-				setPursuer1X(getPursuer1X() + direction.deltaX);
-				setPursuer1Y(getPursuer1Y() + direction.deltaY);
-			}
+	private Pathfinder getActivePathfinder() {
+		if (mode2) {
+			return pathfinders[1];
+		} else if (mode3) {
+			return pathfinders[2];
 		}
+		return null;
 	}
 
 	/**
-	 * Moves pursuer 2 in the specified direction if the move is valid.
+	 * Returns the first step of a shortest path from the given cell to the player, taken from the
+	 * flow field or the next-hop table if one is in use, searched by the pathfinder of the current mode
+	 * if it has one and taken from the player's distance field otherwise, in a maze read in chunks from
+	 * the field of the window around the player.
 	 *
-	 * @param direction the direction in which to move pursuer 2
+	 * @param index the index of the pursuer
+	 * @param x     the X coordinate of the pursuer
+	 * @param y     the Y coordinate of the pursuer
+	 * @return the direction toward the player, or {@link Direction#NONE} if there is none
 	 */
-	public void movePursuer2(Direction direction) {
-		if ((getPursuer2X() + direction.deltaX) >= 0 && (getPursuer2X() + direction.deltaX) < walls.length && (getPursuer2Y() + direction.deltaY) >= 0 && (getPursuer2Y() + direction.deltaY) < walls[0].length) {
-			if (!walls[getPursuer2X() + direction.deltaX][getPursuer2Y() + direction.deltaY]) {
-				setPursuer2X(getPursuer2X() + direction.deltaX);
-				setPursuer2Y(getPursuer2Y() + direction.deltaY);
-			}
+	private Direction chaseDirection(int index, int x, int y) {
+		if (flowField != null) {
+			return flowField.getDirection(x, y);
+		}
+		if (nextHops != null) {
+			return nextHops.nextDirection(x, y, getPlayerX(), getPlayerY());
+		}
+		Pathfinder pathfinder = getActivePathfinder();
+		if (pathfinder != null) {
+			return pathfinder.firstStep(index, walls, x, y, getPlayerX(), getPlayerY());
+		}
+		if (walls.isChunked()) {
+			return getWindowedDistanceField().nextDirection(x, y);
 		}
+		return getDistanceField().nextDirection(x, y);
 	}
 
 	/**
-	 * Moves pursuer 3 in the specified direction if the move is valid.
+	 * Moves a pursuer in the specified direction if the move is valid.
 	 *
-	 * @param direction the direction in which to move pursuer 3
+	 * @param index     the index of the pursuer, from 0 to {@link #getPursuerCount()} - 1
+	 * @param direction the direction in which to move the pursuer
 	 */
-	public void movePursuer3(Direction direction) {
-		if ((getPursuer3X() + direction.deltaX) >= 0 && (getPursuer3X() + direction.deltaX) < walls.length && (getPursuer3Y() + direction.deltaY) >= 0 && (getPursuer3Y() + direction.deltaY) < walls[0].length) {
-			if (!walls[getPursuer3X() + direction.deltaX][getPursuer3Y() + direction.deltaY]) {
-				setPursuer3X(getPursuer3X() + direction.deltaX);
-				setPursuer3Y(getPursuer3Y() + direction.deltaY);
-			}
+	public void movePursuer(int index, Direction direction) {
+		pursuers.move(index, direction, walls);
+	}
+
+	/**
+	 * Moves every pursuer one step along a shortest path toward the player.
+	 */
+	private void chasePlayer() {
+		if (flowField != null) {
+			pursuers.follow(flowField, walls);
+			return;
+		}
+
+		for (int i = 0; i < pursuers.getCount(); i++) {
+			pursuers.move(i, chaseDirection(i, pursuers.getX(i), pursuers.getY(i)), walls);
 		}
 	}
 
 	/**
-	 * Moves pursuer 4 in the specified direction if the move is valid.
-	 *
-	 * @param direction the direction in which to move pursuer 4
+	 * Moves every pursuer either randomly or toward the player, then lets it do the other next time.
 	 */
-	public void movePursuer4(Direction direction) {
-		if ((getPursuer4X() + direction.deltaX) >= 0 && (getPursuer4X() + direction.deltaX) < walls.length && (getPursuer4Y() + direction.deltaY) >= 0 && (getPursuer4Y() + direction.deltaY) < walls[0].length) {
-			if (!walls[getPursuer4X() + direction.deltaX][getPursuer4Y() + direction.deltaY]) {
-				setPursuer4X(getPursuer4X() + direction.deltaX);
-				setPursuer4Y(getPursuer4Y() + direction.deltaY);
+	private void alternateMoves() {
+		for (int i = 0; i < pursuers.getCount(); i++) {
+			if (pursuers.getRandomMove(i)) {
+				pursuers.move(i, Direction.getRandomDirection(random), walls);
+			} else {
+				pursuers.move(i, chaseDirection(i, pursuers.getX(i), pursuers.getY(i)), walls);
 			}
+			pursuers.setRandomMove(i, !pursuers.getRandomMove(i));
 		}
 	}
 
@@ -801,9 +1179,11 @@ public class World {
 	}
 
 	/**
-	 * Updates all registered views with the current game state.
+	 * Updates all registered views with the current game state. Called by the world itself after every
+	 * change made through the game's own methods, and by drivers such as a game loop after steps made
+	 * without notifying the views.
 	 */
-	private void updateViews() {
+	public void updateViews() {
 		for (int i = 0; i < views.size(); i++) {
 			views.get(i).update(this);
 		}
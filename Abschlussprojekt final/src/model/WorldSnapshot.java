@@ -0,0 +1,225 @@
+package model;
+
+/**
+ * WorldSnapshot is an immutable copy of the state of a {@link World} that views need to draw it. It is
+ * taken with {@link World#snapshot()} on the thread that changes the world and can then be handed to any
+ * other thread, e.g. the Event Dispatch Thread, which reads it without locking while the world moves on.
+ * <p>
+ * The walls are not copied, because they never change during a game. Walls whose reads are not
+ * thread-safe, e.g. a level loaded in chunks, are read through a grid of the views' own with a separate
+ * cache, so painting never touches the grid the world is searched on.
+ */
+public final class WorldSnapshot {
+
+	// Dimensions of the world grid
+	private final int width;
+	private final int height;
+
+	// Walls of the world, readable on the views' threads
+	private final WallGrid walls;
+
+	// Coordinates of the start and end of the maze
+	private final int startX;
+	private final int startY;
+	private final int endX;
+	private final int endY;
+
+	// Coordinates of the player
+	private final int playerX;
+	private final int playerY;
+
+	// Coordinates of the pursuers, copied from the world
+	private final int[] pursuerXs;
+	private final int[] pursuerYs;
+
+	// Selected modes
+	private final boolean mode1;
+	private final boolean mode2;
+	private final boolean mode3;
+
+	// Whether the game is won or lost
+	private final boolean win;
+	private final boolean lost;
+
+	/**
+	 * Constructs a snapshot from the given state. The pursuer arrays must not be changed afterwards.
+	 *
+	 * @param world     the world the state is taken from
+	 * @param walls     the walls of the world that other threads can read
+	 * @param pursuerXs the X coordinates of the pursuers
+	 * @param pursuerYs the Y coordinates of the pursuers
+	 */
+	WorldSnapshot(World world, WallGrid walls, int[] pursuerXs, int[] pursuerYs) {
+		this.width = world.getWidth();
+		this.height = world.getHeight();
+		this.walls = walls;
+		this.startX = world.getStartX();
+		this.startY = world.getStartY();
+		this.endX = world.getEndX();
+		this.endY = world.getEndY();
+		this.playerX = world.getPlayerX();
+		this.playerY = world.getPlayerY();
+		this.pursuerXs = pursuerXs;
+		this.pursuerYs = pursuerYs;
+		this.mode1 = world.getMode1();
+		this.mode2 = world.getMode2();
+		this.mode3 = world.getMode3();
+		this.win = world.getWin();
+		this.lost = world.getLost();
+	}
+
+	/**
+	 * Returns the width of the world grid.
+	 *
+	 * @return Width of the world.
+	 */
+	public int getWidth() {
+		return width;
+	}
+
+	/**
+	 * Returns the height of the world grid.
+	 *
+	 * @return Height of the world.
+	 */
+	public int getHeight() {
+		return height;
+	}
+
+	/**
+	 * Returns the walls of the world.
+	 *
+	 * @return the grid representing the walls in the world
+	 */
+	public WallGrid getWalls() {
+		return walls;
+	}
+
+	/**
+	 * Returns the X coordinate of the start.
+	 *
+	 * @return X coordinate of the start.
+	 */
+	public int getStartX() {
+		return startX;
+	}
+
+	/**
+	 * Returns the Y coordinate of the start.
+	 *
+	 * @return Y coordinate of the start.
+	 */
+	public int getStartY() {
+		return startY;
+	}
+
+	/**
+	 * Returns the X coordinate of the end.
+	 *
+	 * @return X coordinate of the end.
+	 */
+	public int getEndX() {
+		return endX;
+	}
+
+	/**
+	 * Returns the Y coordinate of the end.
+	 *
+	 * @return Y coordinate of the end.
+	 */
+	public int getEndY() {
+		return endY;
+	}
+
+	/**
+	 * Returns the X coordinate of the player.
+	 *
+	 * @return X coordinate of the player.
+	 */
+	public int getPlayerX() {
+		return playerX;
+	}
+
+	/**
+	 * Returns the Y coordinate of the player.
+	 *
+	 * @return Y coordinate of the player.
+	 */
+	public int getPlayerY() {
+		return playerY;
+	}
+
+	/**
+	 * Returns the number of pursuers in play.
+	 *
+	 * @return Number of pursuers.
+	 */
+	public int getPursuerCount() {
+		return pursuerXs.length;
+	}
+
+	/**
+	 * Returns the X coordinate of a pursuer.
+	 *
+	 * @param index the index of the pursuer, from 0 to {@link #getPursuerCount()} - 1
+	 * @return X coordinate of the pursuer.
+	 */
+	public int getPursuerX(int index) {
+		return pursuerXs[index];
+	}
+
+	/**
+	 * Returns the Y coordinate of a pursuer.
+	 *
+	 * @param index the index of the pursuer, from 0 to {@link #getPursuerCount()} - 1
+	 * @return Y coordinate of the pursuer.
+	 */
+	public int getPursuerY(int index) {
+		return pursuerYs[index];
+	}
+
+	/**
+	 * Returns whether the game was in mode 1 (easy mode).
+	 *
+	 * @return true if in mode 1, otherwise false
+	 */
+	public boolean getMode1() {
+		return mode1;
+	}
+
+	/**
+	 * Returns whether the game was in mode 2 (medium mode).
+	 *
+	 * @return true if in mode 2, otherwise false
+	 */
+	public boolean getMode2() {
+		return mode2;
+	}
+
+	/**
+	 * Returns whether the game was in mode 3 (difficult mode).
+	 *
+	 * @return true if in mode 3, otherwise false
+	 */
+	public boolean getMode3() {
+		return mode3;
+	}
+
+	/**
+	 * Returns whether the game was won.
+	 *
+	 * @return true if the game is won, otherwise false
+	 */
+	public boolean getWin() {
+		return win;
+	}
+
+	/**
+	 * Returns whether the game was lost.
+	 *
+	 * @return true if the game is lost, otherwise false
+	 */
+	public boolean getLost() {
+		return lost;
+	}
+}
@@ -1,117 +1,119 @@
 package view;
 
+import model.WallGrid;
 import model.World;
+import model.WorldSnapshot;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * ConsoleView is an implementation of the View interface that displays the state of the World object
  * in a textual console format.
+ * <p>
+ * An update only takes a {@link WorldSnapshot} on the caller's thread. Rendering and printing it, which
+ * takes time in the size of the maze, happen on a printer thread of the view, so they never hold up the
+ * thread that changes the world. Updates arriving while the printer is busy are merged: only the latest
+ * snapshot waiting is printed, so a slow console skips frames instead of falling behind.
  */
 public class ConsoleView implements View {
 
+	// Thread that renders and prints the snapshots, one after the other
+	private final ExecutorService printer = Executors.newSingleThreadExecutor(task -> {
+		Thread thread = new Thread(task, "console-view");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	// Latest snapshot waiting to be printed, guarded by the view itself
+	private WorldSnapshot pending;
+
+	// Whether a print of the pending snapshot is scheduled, guarded by the view itself
+	private boolean printScheduled = false;
+
 	/**
 	 * Updates the console output to reflect the current state of the World object.
-	 * This method prints a textual representation of the World's state to the console,
-	 * including player position, pursuers' positions, start and end points, walls, and
-	 * game outcome messages.
+	 * This method takes a snapshot of the world and hands it to the printer thread, which prints a
+	 * textual representation of the World's state to the console, including player position, pursuers'
+	 * positions, start and end points, walls, and game outcome messages.
 	 *
 	 * @param world the World object containing the updated state.
 	 */
 	@Override
 	public void update(World world) {
+		WorldSnapshot snapshot = world.snapshot();
+		synchronized (this) {
+			pending = snapshot;
+			if (printScheduled) {
+				return;
+			}
+			printScheduled = true;
+		}
+		printer.execute(this::printPending);
+	}
 
-		// Extracting player and pursuers positions
-		int playerX = world.getPlayerX();
-		int playerY = world.getPlayerY();
-		int startX = world.getStartX();
-		int startY = world.getStartY();
-		int endX = world.getEndX();
-		int endY = world.getEndY();
-		int pursuer1X = world.getPursuer1X();
-		int pursuer1Y = world.getPursuer1Y();
-		int pursuer2X = world.getPursuer2X();
-		int pursuer2Y = world.getPursuer2Y();
-		int pursuer3X = world.getPursuer3X();
-		int pursuer3Y = world.getPursuer3Y();
-		int pursuer4X = world.getPursuer4X();
-		int pursuer4Y = world.getPursuer4Y();
+	/**
+	 * Prints the latest snapshot waiting. Runs on the printer thread.
+	 */
+	private void printPending() {
+		WorldSnapshot snapshot;
+		synchronized (this) {
+			snapshot = pending;
+			pending = null;
+			printScheduled = false;
+		}
+		System.out.print(render(snapshot));
+	}
 
-		// Getting walls information
-		boolean[][] walls = world.getWalls();
+	/**
+	 * Returns the textual representation of a snapshot as it is printed: one line per row of the world,
+	 * a blank line and the game outcome message if the game is won or lost.
+	 *
+	 * @param world the snapshot to render
+	 * @return the text to print
+	 */
+	public String render(WorldSnapshot world) {
+		int width = world.getWidth();
+		int height = world.getHeight();
 
-		// Iterating through each cell in the world grid
-		for (int row = 0; row < world.getHeight(); row++) {
-			for (int col = 0; col < world.getWidth(); col++) {
+		// Nothing is drawn before a mode is selected
+		boolean drawn = world.getMode1() || world.getMode2() || world.getMode3();
+		int lineLength = drawn ? width + 1 : 1;
+		char[] text = new char[lineLength * height];
 
-				// Checking different modes to display appropriate characters
-				if (world.getMode1()) {
-					if (row == pursuer1Y && col == pursuer1X) {
-						System.out.print("*"); // Print pursuer 1 symbol
-					} else if (row == pursuer2Y && col == pursuer2X) {
-						System.out.print("*"); // Print pursuer 2 symbol
-					} else if (row == playerY && col == playerX) {
-						System.out.print("#"); // Print player symbol
-					} else if (row == startY && col == startX) {
-						System.out.print("S"); // Print start symbol
-					} else if (row == endY && col == endX) {
-						System.out.print("E"); // Print end symbol
-					} else if (walls[col][row]) {
-						System.out.print("+"); // Print wall symbol
-					} else {
-						System.out.print("."); // Print empty space symbol
-					}
-				} else if (world.getMode2()) {
-					if (row == pursuer1Y && col == pursuer1X) {
-						System.out.print("*"); // Print pursuer 1 symbol
-					} else if (row == pursuer2Y && col == pursuer2X) {
-						System.out.print("*"); // Print pursuer 2 symbol
-					} else if (row == pursuer3Y && col == pursuer3X) {
-						System.out.print("*"); // Print pursuer 3 symbol
-					} else if (row == playerY && col == playerX) {
-						System.out.print("#"); // Print player symbol
-					} else if (row == startY && col == startX) {
-						System.out.print("S"); // Print start symbol
-					} else if (row == endY && col == endX) {
-						System.out.print("E"); // Print end symbol
-					} else if (walls[col][row]) {
-						System.out.print("+"); // Print wall symbol
-					} else {
-						System.out.print("."); // Print empty space symbol
-					}
-				} else if (world.getMode3()) {
-					if (row == pursuer1Y && col == pursuer1X) {
-						System.out.print("*"); // Print pursuer 1 symbol
-					} else if (row == pursuer2Y && col == pursuer2X) {
-						System.out.print("*"); // Print pursuer 2 symbol
-					} else if (row == pursuer3Y && col == pursuer3X) {
-						System.out.print("*"); // Print pursuer 3 symbol
-					} else if (row == pursuer4Y && col == pursuer4X) {
-						System.out.print("*"); // Print pursuer 4 symbol
-					} else if (row == playerY && col == playerX) {
-						System.out.print("#"); // Print player symbol
-					} else if (row == startY && col == startX) {
-						System.out.print("S"); // Print start symbol
-					} else if (row == endY && col == endX) {
-						System.out.print("E"); // Print end symbol
-					} else if (walls[col][row]) {
-						System.out.print("+"); // Print wall symbol
-					} else {
-						System.out.print("."); // Print empty space symbol
-					}
+		// Fill in the walls and the empty cells row by row, then the figures on top of them
+		WallGrid walls = world.getWalls();
+		for (int row = 0; row < height; row++) {
+			int line = row * lineLength;
+			if (drawn) {
+				for (int col = 0; col < width; col++) {
+					text[line + col] = walls.isWall(col, row) ? '+' : '.'; // Wall or empty space symbol
 				}
 			}
+			text[line + lineLength - 1] = '\n'; // Move to the next line after printing each row
+		}
 
-			System.out.println(); // Move to the next line after printing each row
+		if (drawn) {
+			text[world.getEndY() * lineLength + world.getEndX()] = 'E'; // End symbol
+			text[world.getStartY() * lineLength + world.getStartX()] = 'S'; // Start symbol
+			text[world.getPlayerY() * lineLength + world.getPlayerX()] = '#'; // Player symbol
+			for (int i = 0; i < world.getPursuerCount(); i++) {
+				text[world.getPursuerY(i) * lineLength + world.getPursuerX(i)] = '*'; // Pursuer symbol
+			}
 		}
 
-		System.out.println(); // Print an additional blank line for separation
+		StringBuilder output = new StringBuilder(text.length + 80);
+		output.append(text);
+		output.append('\n'); // Print an additional blank line for separation
 
 		// Displaying game outcome messages if the game has been won or lost
 		if (world.getWin()) {
-			System.out.println("Congratulations, you have won! Press ENTER to restart and ESC to leave");
+			output.append("Congratulations, you have won! Press ENTER to restart and ESC to leave\n");
 		}
 
 		if (world.getLost()) {
-			System.out.println("Commiserations, you have lost! Press ENTER to restart and ESC to leave");
+			output.append("Commiserations, you have lost! Press ENTER to restart and ESC to leave\n");
 		}
+		return output.toString();
 	}
-}
\ No newline at end of file
+}
@@ -1,23 +1,51 @@
 package view;
 
+import model.WallGrid;
 import model.World;
+import model.WorldSnapshot;
 
 import javax.imageio.ImageIO;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
+import java.util.ArrayList;
 
 /**
  * GraphicView is an implementation of the View interface that displays the state of the World object
- * using graphical components.
+ * using graphical components. It only ever paints from the last {@link WorldSnapshot} handed over by
+ * {@link #update(World)}, so the world can be changed on another thread while the view paints.
+ * <p>
+ * An update only repaints the cells whose content changed, the old and new cells of the player and of
+ * every pursuer that moved, so the cost of a frame follows the movement and not the size of the maze.
+ * The whole view is repainted when the screen changes, i.e. when a mode is chosen or the game is won or
+ * lost, and when so many cells changed that painting them one by one would not pay off.
  */
 public class GraphicView extends JPanel implements View {
 
 	private final int WIDTH;
 	private final int HEIGHT;
 	private Dimension fieldDimension;
-	private World world;
+
+	// Largest number of changed cells repainted one by one, more cause a repaint of the whole view
+	private static final int MAX_DIRTY_CELLS = 256;
+
+	// Largest view in pixels whose static layer is cached, larger views draw it directly on every paint
+	private static final long MAX_STATIC_LAYER_PIXELS = 16L << 20;
+
+	// State painted by the view, replaced as a whole by every update
+	private volatile WorldSnapshot snapshot;
+
+	// Cells waiting to be repainted on the Event Dispatch Thread, guarded by the list itself
+	private final ArrayList<Rectangle> dirtyCells = new ArrayList<>();
+
+	// Whether a repaint of the dirty cells is scheduled, guarded by the list of dirty cells
+	private boolean dirtyPaintScheduled = false;
+
+	// Cached background, walls, start and end, with the walls and the mode it was drawn for
+	private BufferedImage staticLayer;
+	private WallGrid staticLayerWalls;
+	private int staticLayerMode;
 
 	private BufferedImage playerImage;
 	private BufferedImage backgroundImage;
@@ -40,7 +68,7 @@ public class GraphicView extends JPanel implements View {
 		this.HEIGHT = height;
 		this.fieldDimension = fieldDimension;
 		this.bg = new Rectangle(WIDTH, HEIGHT);
-		this.world = world;
+		this.snapshot = world.snapshot();
 
 		// Load images for various elements
 		try {
@@ -57,11 +85,6 @@ public class GraphicView extends JPanel implements View {
 	}
 
 	private final Rectangle bg;
-	private final Rectangle player = new Rectangle(1, 1);
-	private final Rectangle pursuer1 = new Rectangle(1, 1);
-	private final Rectangle pursuer2 = new Rectangle(1, 1);
-	private final Rectangle pursuer3 = new Rectangle(1, 1);
-	private final Rectangle pursuer4 = new Rectangle(1, 1);
 
 	/**
 	 * Paints the graphical representation of the World object on the JPanel.
@@ -70,6 +93,13 @@ public class GraphicView extends JPanel implements View {
 	 */
 	@Override
 	public void paint(Graphics g) {
+		WorldSnapshot world = snapshot;
+
+		// Only cells inside the clip need to be drawn, which is a few cells when repainting dirty cells
+		Rectangle clip = g.getClipBounds();
+		if (clip == null) {
+			clip = bg;
+		}
 
 		// Check if the game is in mode selection or gameplay mode
 		if (!world.getMode1() && !world.getMode2() && !world.getMode3()) {
@@ -93,82 +123,35 @@ public class GraphicView extends JPanel implements View {
 		} else {
 			// Display gameplay screen
 
-			// Draw background image or fill with white if image not available
-			if (backgroundImage != null) {
-				g.drawImage(backgroundImage, bg.x, bg.y, bg.width + 41, bg.height + 40, null);
+			// Draw background, walls, start and end, copied from the cached layer in one call if there is one
+			BufferedImage layer = getStaticLayer(world);
+			if (layer != null) {
+				g.drawImage(layer, 0, 0, null);
 			} else {
-				g.setColor(Color.WHITE);
-				g.fillRect(bg.x, bg.y, bg.width, bg.height);
-			}
-
-			boolean[][] walls = world.getWalls();
-
-			// Draw walls
-			for (int row = 0; row < world.getHeight(); row++) {
-				for (int col = 0; col < world.getWidth(); col++) {
-					if (walls[col][row]) {
-						if (wallImage != null) {
-							g.drawImage(wallImage, fieldDimension.width * col, fieldDimension.height * row, fieldDimension.width, fieldDimension.height, null);
-						} else {
-							g.setColor(Color.GRAY);
-							g.fillRect(fieldDimension.width * col, fieldDimension.height * row, fieldDimension.width, fieldDimension.height);
-						}
-					}
-				}
-			}
-
-			// Draw start and end points
-			if (startImage != null) {
-				g.drawImage(startImage, fieldDimension.width * world.getStartX(), fieldDimension.height * world.getStartY(), fieldDimension.width, fieldDimension.height, null);
-			} else {
-				g.setColor(Color.LIGHT_GRAY);
-				g.fillRect(fieldDimension.width * world.getStartX(), fieldDimension.height * world.getStartY(), fieldDimension.width, fieldDimension.height);
-			}
-
-			if (endImage != null) {
-				g.drawImage(endImage, fieldDimension.width * world.getEndX(), fieldDimension.height * world.getEndY(), fieldDimension.width, fieldDimension.height, null);
-			} else {
-				g.setColor(Color.LIGHT_GRAY);
-				g.fillRect(fieldDimension.width * world.getEndX(), fieldDimension.height * world.getEndY(), fieldDimension.width, fieldDimension.height);
+				paintStaticLayer(g, world, clip);
 			}
 
 			// Draw player and pursuers
+			int playerX = fieldDimension.width * world.getPlayerX();
+			int playerY = fieldDimension.height * world.getPlayerY();
 			if (playerImage != null) {
-				g.drawImage(playerImage, player.x, player.y, player.width, player.height, null);
+				g.drawImage(playerImage, playerX, playerY, fieldDimension.width, fieldDimension.height, null);
 			} else {
 				g.setColor(Color.BLACK);
-				g.fillRect(player.x, player.y, player.width, player.height);
+				g.fillRect(playerX, playerY, fieldDimension.width, fieldDimension.height);
 			}
 
-			if (pursuerImage != null) {
-				g.drawImage(pursuerImage, pursuer1.x, pursuer1.y, pursuer1.width, pursuer1.height, null);
-			} else {
-				g.setColor(Color.RED);
-				g.fillRect(pursuer1.x, pursuer1.y, pursuer1.width, pursuer1.height);
-			}
-
-			if (pursuerImage != null) {
-				g.drawImage(pursuerImage, pursuer2.x, pursuer2.y, pursuer2.width, pursuer2.height, null);
-			} else {
-				g.setColor(Color.RED);
-				g.fillRect(pursuer2.x, pursuer2.y, pursuer2.width, pursuer2.height);
-			}
-
-			if (!world.getMode1()) {
-				if (pursuerImage != null) {
-					g.drawImage(pursuerImage, pursuer3.x, pursuer3.y, pursuer3.width, pursuer3.height, null);
-				} else {
-					g.setColor(Color.RED);
-					g.fillRect(pursuer3.x, pursuer3.y, pursuer3.width, pursuer3.height);
+			for (int i = 0; i < world.getPursuerCount(); i++) {
+				int pursuerX = fieldDimension.width * world.getPursuerX(i);
+				int pursuerY = fieldDimension.height * world.getPursuerY(i);
+				if (!clip.intersects(pursuerX, pursuerY, fieldDimension.width, fieldDimension.height)) {
+					continue;
 				}
-			}
-
-			if (world.getMode3()) {
 				if (pursuerImage != null) {
-					g.drawImage(pursuerImage, pursuer4.x, pursuer4.y, pursuer4.width, pursuer4.height, null);
+					g.drawImage(pursuerImage, pursuerX, pursuerY, fieldDimension.width, fieldDimension.height, null);
 				} else {
 					g.setColor(Color.RED);
-					g.fillRect(pursuer4.x, pursuer4.y, pursuer4.width, pursuer4.height);
+					g.fillRect(pursuerX, pursuerY, fieldDimension.width, fieldDimension.height);
 				}
 			}
 		}
@@ -202,45 +185,170 @@ public class GraphicView extends JPanel implements View {
 		}
 	}
 
+	/**
+	 * Returns the cached image of everything that does not change during a game: the background, the
+	 * walls, the start and the end. It is drawn when first needed and again when the maze or the mode
+	 * changes. Runs on the Event Dispatch Thread only, like all painting.
+	 *
+	 * @param world the snapshot being painted
+	 * @return the image, or null if the view is too large to cache it and has to be drawn directly
+	 */
+	private BufferedImage getStaticLayer(WorldSnapshot world) {
+		if ((long) WIDTH * HEIGHT > MAX_STATIC_LAYER_PIXELS) {
+			return null;
+		}
+
+		int mode = world.getMode1() ? 1 : world.getMode2() ? 2 : 3;
+		if (staticLayer == null || staticLayerWalls != world.getWalls() || staticLayerMode != mode) {
+			// An image in the screen's format is copied without conversion
+			GraphicsConfiguration configuration = getGraphicsConfiguration();
+			BufferedImage layer = configuration != null
+					? configuration.createCompatibleImage(WIDTH, HEIGHT)
+					: new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+
+			Graphics g = layer.getGraphics();
+			paintStaticLayer(g, world, bg);
+			g.dispose();
+
+			staticLayer = layer;
+			staticLayerWalls = world.getWalls();
+			staticLayerMode = mode;
+		}
+		return staticLayer;
+	}
+
+	/**
+	 * Draws the background, the walls inside the clip, the start and the end.
+	 *
+	 * @param g     the Graphics context in which to paint.
+	 * @param world the snapshot being painted.
+	 * @param clip  the area that needs to be drawn.
+	 */
+	private void paintStaticLayer(Graphics g, WorldSnapshot world, Rectangle clip) {
+		// Draw background image or fill with white if image not available
+		if (backgroundImage != null) {
+			g.drawImage(backgroundImage, bg.x, bg.y, bg.width + 41, bg.height + 40, null);
+		} else {
+			g.setColor(Color.WHITE);
+			g.fillRect(bg.x, bg.y, bg.width, bg.height);
+		}
+
+		WallGrid walls = world.getWalls();
+
+		// Draw the walls inside the clip, skipping runs of free cells a word at a time
+		int firstCol = Math.max(0, clip.x / fieldDimension.width);
+		int lastCol = Math.min(world.getWidth() - 1, (clip.x + clip.width - 1) / fieldDimension.width);
+		int firstRow = Math.max(0, clip.y / fieldDimension.height);
+		int lastRow = Math.min(world.getHeight() - 1, (clip.y + clip.height - 1) / fieldDimension.height);
+		for (int row = firstRow; row <= lastRow; row++) {
+			for (int col = walls.nextWall(firstCol, row); col >= 0 && col <= lastCol; col = walls.nextWall(col + 1, row)) {
+				if (wallImage != null) {
+					g.drawImage(wallImage, fieldDimension.width * col, fieldDimension.height * row, fieldDimension.width, fieldDimension.height, null);
+				} else {
+					g.setColor(Color.GRAY);
+					g.fillRect(fieldDimension.width * col, fieldDimension.height * row, fieldDimension.width, fieldDimension.height);
+				}
+			}
+		}
+
+		// Draw start and end points
+		if (startImage != null) {
+			g.drawImage(startImage, fieldDimension.width * world.getStartX(), fieldDimension.height * world.getStartY(), fieldDimension.width, fieldDimension.height, null);
+		} else {
+			g.setColor(Color.LIGHT_GRAY);
+			g.fillRect(fieldDimension.width * world.getStartX(), fieldDimension.height * world.getStartY(), fieldDimension.width, fieldDimension.height);
+		}
+
+		if (endImage != null) {
+			g.drawImage(endImage, fieldDimension.width * world.getEndX(), fieldDimension.height * world.getEndY(), fieldDimension.width, fieldDimension.height, null);
+		} else {
+			g.setColor(Color.LIGHT_GRAY);
+			g.fillRect(fieldDimension.width * world.getEndX(), fieldDimension.height * world.getEndY(), fieldDimension.width, fieldDimension.height);
+		}
+	}
+
 	/**
 	 * Updates the state of the GraphicView based on the updated World object.
-	 * This method updates the positions of the player and pursuers on the graphical view
-	 * and triggers a repaint of the view.
+	 * This method takes a snapshot of the world on the caller's thread, hands it to the painting code
+	 * and schedules a repaint of the cells that changed since the last update, or of the whole view if
+	 * the screen changed. Swing performs the painting on the Event Dispatch Thread.
 	 *
 	 * @param world the World object containing the updated state.
 	 */
 	@Override
 	public void update(World world) {
+		WorldSnapshot previous = snapshot;
+		WorldSnapshot next = world.snapshot();
+		snapshot = next;
+
+		// A different screen or a different number of pursuers changes the whole view
+		if (previous == null || previous.getWalls() != next.getWalls()
+				|| previous.getMode1() != next.getMode1() || previous.getMode2() != next.getMode2()
+				|| previous.getMode3() != next.getMode3() || previous.getWin() != next.getWin()
+				|| previous.getLost() != next.getLost() || previous.getPursuerCount() != next.getPursuerCount()) {
+			repaint();
+			return;
+		}
 
-		// Update player position
-		player.setSize(fieldDimension);
-		player.setLocation((int) (world.getPlayerX() * fieldDimension.width), (int) (world.getPlayerY() * fieldDimension.height));
-
-		// Update pursuer positions based on game mode
-		if (world.getMode1()) {
-			pursuer1.setSize(fieldDimension);
-			pursuer1.setLocation((int) (world.getPursuer1X() * fieldDimension.width), (int) (world.getPursuer1Y() * fieldDimension.height));
-			pursuer2.setSize(fieldDimension);
-			pursuer2.setLocation((int) (world.getPursuer2X() * fieldDimension.width), (int) (world.getPursuer2Y() * fieldDimension.height));
-		} else if (world.getMode2()) {
-			pursuer1.setSize(fieldDimension);
-			pursuer1.setLocation((int) (world.getPursuer1X() * fieldDimension.width), (int) (world.getPursuer1Y() * fieldDimension.height));
-			pursuer2.setSize(fieldDimension);
-			pursuer2.setLocation((int) (world.getPursuer2X() * fieldDimension.width), (int) (world.getPursuer2Y() * fieldDimension.height));
-			pursuer3.setSize(fieldDimension);
-			pursuer3.setLocation((int) (world.getPursuer3X() * fieldDimension.width), (int) (world.getPursuer3Y() * fieldDimension.height));
-		} else if (world.getMode3()) {
-			pursuer1.setSize(fieldDimension);
-			pursuer1.setLocation((int) (world.getPursuer1X() * fieldDimension.width), (int) (world.getPursuer1Y() * fieldDimension.height));
-			pursuer2.setSize(fieldDimension);
-			pursuer2.setLocation((int) (world.getPursuer2X() * fieldDimension.width), (int) (world.getPursuer2Y() * fieldDimension.height));
-			pursuer3.setSize(fieldDimension);
-			pursuer3.setLocation((int) (world.getPursuer3X() * fieldDimension.width), (int) (world.getPursuer3Y() * fieldDimension.height));
-			pursuer4.setSize(fieldDimension);
-			pursuer4.setLocation((int) (world.getPursuer4X() * fieldDimension.width), (int) (world.getPursuer4Y() * fieldDimension.height));
-		}
-
-		// Trigger repaint of the graphical view
-		repaint();
+		// Collect the old and new cells of everything that moved
+		ArrayList<Rectangle> changed = new ArrayList<>();
+		addMove(changed, previous.getPlayerX(), previous.getPlayerY(), next.getPlayerX(), next.getPlayerY());
+		for (int i = 0; i < next.getPursuerCount() && changed.size() <= MAX_DIRTY_CELLS; i++) {
+			addMove(changed, previous.getPursuerX(i), previous.getPursuerY(i), next.getPursuerX(i), next.getPursuerY(i));
+		}
+		if (changed.isEmpty()) {
+			return;
+		}
+		if (changed.size() > MAX_DIRTY_CELLS) {
+			repaint();
+			return;
+		}
+
+		// Hand the cells to the Event Dispatch Thread, merging them into a repaint that has not run yet
+		synchronized (dirtyCells) {
+			dirtyCells.addAll(changed);
+			if (dirtyPaintScheduled) {
+				return;
+			}
+			dirtyPaintScheduled = true;
+		}
+		SwingUtilities.invokeLater(this::paintDirtyCells);
+	}
+
+	/**
+	 * Adds the old and the new cell of a figure to the changed cells if the figure moved.
+	 *
+	 * @param changed the changed cells in pixels
+	 * @param oldX    the old X coordinate of the figure
+	 * @param oldY    the old Y coordinate of the figure
+	 * @param newX    the new X coordinate of the figure
+	 * @param newY    the new Y coordinate of the figure
+	 */
+	private void addMove(ArrayList<Rectangle> changed, int oldX, int oldY, int newX, int newY) {
+		if (oldX == newX && oldY == newY) {
+			return;
+		}
+		changed.add(new Rectangle(oldX * fieldDimension.width, oldY * fieldDimension.height, fieldDimension.width, fieldDimension.height));
+		changed.add(new Rectangle(newX * fieldDimension.width, newY * fieldDimension.height, fieldDimension.width, fieldDimension.height));
+	}
+
+	/**
+	 * Repaints the dirty cells one by one from the latest snapshot. Runs on the Event Dispatch Thread.
+	 */
+	private void paintDirtyCells() {
+		Rectangle[] cells;
+		synchronized (dirtyCells) {
+			cells = dirtyCells.toArray(new Rectangle[0]);
+			dirtyCells.clear();
+			dirtyPaintScheduled = false;
+		}
+
+		if (cells.length > MAX_DIRTY_CELLS) {
+			repaint();
+			return;
+		}
+		for (Rectangle cell : cells) {
+			paintImmediately(cell);
+		}
 	}
 }
\ No newline at end of file
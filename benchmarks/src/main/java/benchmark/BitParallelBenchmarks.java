@@ -0,0 +1,104 @@
+package benchmark;
+
+import model.BitParallelSearch;
+import model.DistanceField;
+import model.IntArrayStorage;
+import model.WallGrid;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks filling a whole distance field from the first free cell with the queue of the
+ * {@link DistanceField}, the scalar {@link BitParallelSearch} and the one using the Vector API, in a
+ * generated maze and in an open grid without walls, where the frontier is widest.
+ * <p>
+ * The benchmark JVM is started with {@code --add-modules jdk.incubator.vector}, so the vector search
+ * is available; if the game was built without it, the vector runs fail instead of measuring the
+ * scalar search twice.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class BitParallelBenchmarks {
+
+	// Search filling the field: "queue", "scalar" or "vector"
+	@Param({"queue", "scalar", "vector"})
+	public String search;
+
+	// Side length of the grid
+	@Param({"256", "2048"})
+	public int size;
+
+	// A generated "maze" or an "open" grid without walls
+	@Param({"maze", "open"})
+	public String layout;
+
+	// The walls searched in
+	private WallGrid walls;
+
+	// Root cell of the search
+	private int[] root;
+
+	// Field filled by the queue
+	private DistanceField field;
+
+	// Bit-parallel search and the distances it fills
+	private BitParallelSearch bitParallel;
+	private IntArrayStorage distances;
+
+	/**
+	 * Creates the grid and the search.
+	 */
+	@Setup
+	public void setUp() {
+		walls = "open".equals(layout) ? new WallGrid(size, size) : Mazes.world(String.valueOf(size)).getWalls();
+		root = Mazes.firstFreeCell(walls);
+		switch (search) {
+			case "queue":
+				field = new DistanceField(size, size);
+				break;
+			case "scalar":
+				bitParallel = new BitParallelSearch(size, size);
+				break;
+			case "vector":
+				if (!BitParallelSearch.isVectorized()) {
+					throw new IllegalStateException("The game was built without the Vector API search");
+				}
+				bitParallel = BitParallelSearch.create(size, size);
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown search: " + search);
+		}
+		distances = new IntArrayStorage(size * size);
+	}
+
+	/**
+	 * Fills the distances from the root cell.
+	 *
+	 * @return Distance of the last cell.
+	 */
+	@Benchmark
+	public int fill() {
+		if (field != null) {
+			field.invalidate();
+			field.update(walls, root[0], root[1]);
+			return field.getDistance(size - 1, size - 1);
+		}
+		bitParallel.fill(walls, root[0], root[1], distances);
+		return distances.get(size * size - 1);
+	}
+}
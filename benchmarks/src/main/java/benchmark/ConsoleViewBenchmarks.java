@@ -0,0 +1,59 @@
+package benchmark;
+
+import model.World;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import view.ConsoleView;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link ConsoleView#render}, the text the view prints on its own thread after every update.
+ * Mazes larger than 256x256 are not measured, nobody reads them on a console.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConsoleViewBenchmarks {
+
+	// The built-in maze or the side length of a generated one
+	@Param({Mazes.CLASSIC, "64", "256"})
+	public String maze;
+
+	// The world being printed
+	private World world;
+
+	// The view under test
+	private final ConsoleView view = new ConsoleView();
+
+	/**
+	 * Creates the world in difficult mode, so the pursuers are printed as well.
+	 */
+	@Setup
+	public void setUp() {
+		world = Mazes.world(maze);
+		Mazes.selectMode(world, 3);
+	}
+
+	/**
+	 * Takes a snapshot of the world and renders it as text.
+	 *
+	 * @return the text
+	 */
+	@Benchmark
+	public String render() {
+		return view.render(world.snapshot());
+	}
+}
@@ -0,0 +1,85 @@
+package benchmark;
+
+import model.KruskalGenerator;
+import model.MazeGenerator;
+import model.RecursiveBacktrackerGenerator;
+import model.TiledMazeGenerator;
+import model.WallGrid;
+import model.WilsonGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks filling a grid with a maze by every generator.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeneratorBenchmarks {
+
+	// Side length of the maze
+	@Param({"64", "256", "1024", "4096"})
+	public int size;
+
+	// Name of the generator
+	@Param({"backtracker", "wilson", "kruskal", "tiled"})
+	public String generator;
+
+	// The generator and the grid it fills
+	private MazeGenerator mazeGenerator;
+	private WallGrid walls;
+
+	// Generator of the mazes, so every invocation fills a different one
+	private SplittableRandom random;
+
+	/**
+	 * Creates the generator and an empty grid.
+	 */
+	@Setup
+	public void setUp() {
+		switch (generator) {
+			case "backtracker":
+				mazeGenerator = new RecursiveBacktrackerGenerator();
+				break;
+			case "wilson":
+				mazeGenerator = new WilsonGenerator();
+				break;
+			case "kruskal":
+				mazeGenerator = new KruskalGenerator();
+				break;
+			case "tiled":
+				mazeGenerator = new TiledMazeGenerator();
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown generator: " + generator);
+		}
+		walls = new WallGrid(size, size);
+		random = new SplittableRandom(size);
+	}
+
+	/**
+	 * Fills the grid with a new maze.
+	 *
+	 * @return Number of free cells.
+	 */
+	@Benchmark
+	public long generate() {
+		mazeGenerator.generate(walls, random);
+		return walls.countFree();
+	}
+}
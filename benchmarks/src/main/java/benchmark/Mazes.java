@@ -0,0 +1,165 @@
+package benchmark;
+
+import model.Direction;
+import model.RecursiveBacktrackerGenerator;
+import model.WallGrid;
+import model.World;
+
+import java.util.SplittableRandom;
+
+/**
+ * Mazes builds the worlds the benchmarks run on and finds the cells they need in them.
+ */
+final class Mazes {
+
+	/**
+	 * Name of the built-in 15x15 maze in the benchmark parameters, the other names are side lengths of
+	 * generated mazes.
+	 */
+	static final String CLASSIC = "classic";
+
+	// Seed of the generated mazes
+	private static final long SEED = 42;
+
+	// Directions the player can move in
+	static final Direction[] MOVES = {Direction.UP, Direction.DOWN, Direction.LEFT, Direction.RIGHT};
+
+	private Mazes() {
+	}
+
+	/**
+	 * Creates the world named by a benchmark parameter: the built-in maze for {@link #CLASSIC}, otherwise a
+	 * maze of the given side length filled by the recursive backtracker.
+	 *
+	 * @param maze {@link #CLASSIC} or the side length of the maze
+	 * @return the new world
+	 */
+	static World world(String maze) {
+		if (CLASSIC.equals(maze)) {
+			return new World(15, 15);
+		}
+		int size = Integer.parseInt(maze);
+		return new World(size, size, new RecursiveBacktrackerGenerator(), SEED);
+	}
+
+	/**
+	 * Switches a world to the given mode (1 easy, 2 medium, 3 difficult).
+	 *
+	 * @param world the world to switch
+	 * @param mode  the mode
+	 */
+	static void selectMode(World world, int mode) {
+		world.setMode1(mode == 1);
+		world.setMode2(mode == 2);
+		world.setMode3(mode == 3);
+	}
+
+	/**
+	 * Restarts a finished game and places the player and all pursuers on random free cells.
+	 *
+	 * @param world  the world to restart
+	 * @param random the generator of the cells
+	 */
+	static void restart(World world, SplittableRandom random) {
+		world.restartGame();
+		int[] cell = randomFreeCell(world.getWalls(), random);
+		world.setPlayerX(cell[0]);
+		world.setPlayerY(cell[1]);
+
+		for (int i = 0; i < world.getPursuerCount(); i++) {
+			cell = randomFreeCell(world.getWalls(), random);
+			world.setPursuer(i, cell[0], cell[1]);
+		}
+	}
+
+	/**
+	 * Returns a random free cell.
+	 *
+	 * @param walls  the walls of the maze
+	 * @param random the generator of the cell
+	 * @return the X and Y coordinate of the cell
+	 */
+	static int[] randomFreeCell(WallGrid walls, SplittableRandom random) {
+		while (true) {
+			int x = random.nextInt(walls.getWidth());
+			int y = random.nextInt(walls.getHeight());
+			if (!walls.isWall(x, y)) {
+				return new int[]{x, y};
+			}
+		}
+	}
+
+	/**
+	 * Returns the first free cell in reading order.
+	 *
+	 * @param walls the walls of the maze
+	 * @return the X and Y coordinate of the cell
+	 */
+	static int[] firstFreeCell(WallGrid walls) {
+		for (int y = 0; y < walls.getHeight(); y++) {
+			for (int x = 0; x < walls.getWidth(); x++) {
+				if (!walls.isWall(x, y)) {
+					return new int[]{x, y};
+				}
+			}
+		}
+		throw new IllegalArgumentException("Maze without free cells");
+	}
+
+	/**
+	 * Returns the last free cell in reading order, which lies in the corner opposite the first one.
+	 *
+	 * @param walls the walls of the maze
+	 * @return the X and Y coordinate of the cell
+	 */
+	static int[] lastFreeCell(WallGrid walls) {
+		for (int y = walls.getHeight() - 1; y >= 0; y--) {
+			for (int x = walls.getWidth() - 1; x >= 0; x--) {
+				if (!walls.isWall(x, y)) {
+					return new int[]{x, y};
+				}
+			}
+		}
+		throw new IllegalArgumentException("Maze without free cells");
+	}
+
+	/**
+	 * Returns the cell on a shortest path from the pursuer to the player that is the given number of
+	 * steps away from the player, or the pursuer's cell if the path is shorter or there is none.
+	 *
+	 * @param world    the world whose distance field is used
+	 * @param player   the X and Y coordinate of the player
+	 * @param pursuer  the X and Y coordinate of the pursuer
+	 * @param distance Number of steps from the player.
+	 * @return the X and Y coordinate of the cell
+	 */
+	static int[] cellOnPath(World world, int[] player, int[] pursuer, int distance) {
+		world.getDistanceField().update(world.getWalls(), player[0], player[1]);
+		int[] cell = pursuer.clone();
+		while (world.getDistanceField().getDistance(cell[0], cell[1]) > distance) {
+			Direction step = world.getDistanceField().nextDirection(cell[0], cell[1]);
+			if (step == Direction.NONE) {
+				break;
+			}
+			cell[0] += step.deltaX;
+			cell[1] += step.deltaY;
+		}
+		return cell;
+	}
+
+	/**
+	 * Returns a free neighbour of the given cell, or the cell itself if it has none.
+	 *
+	 * @param walls the walls of the maze
+	 * @param cell  the X and Y coordinate of the cell
+	 * @return the X and Y coordinate of the neighbour
+	 */
+	static int[] freeNeighbour(WallGrid walls, int[] cell) {
+		for (Direction move : MOVES) {
+			if (!walls.isWall(cell[0] + move.deltaX, cell[1] + move.deltaY)) {
+				return new int[]{cell[0] + move.deltaX, cell[1] + move.deltaY};
+			}
+		}
+		return cell;
+	}
+}
@@ -0,0 +1,170 @@
+package benchmark;
+
+import model.AStarPathfinder;
+import model.DijkstraPathfinder;
+import model.Direction;
+import model.HierarchicalPathfinder;
+import model.JumpPointPathfinder;
+import model.Pathfinder;
+import model.World;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the search for the first step of a pursuer with every {@link Pathfinder}, from the opposite
+ * corner of the maze and from {@link #NEAR_DISTANCE} steps away. The nodes each search expands are
+ * counted as well; their total divided by the number of searches is the work per search.
+ * <p>
+ * {@link #firstStep} searches from the same cell every time. {@link #pursue} lets the pursuer walk
+ * toward the player as it does in a game, so a pathfinder that keeps the path of a pursuer, like the
+ * {@link HierarchicalPathfinder}, only pays for its first search.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PathfinderBenchmarks {
+
+	/**
+	 * Path length between the player and the pursuer in the nearby searches.
+	 */
+	public static final int NEAR_DISTANCE = 64;
+
+	// The built-in maze or the side length of a generated one
+	@Param({Mazes.CLASSIC, "64", "256", "1024", "4096"})
+	public String maze;
+
+	// Name of the pathfinder
+	@Param({"dijkstra", "astar", "jps", "hpa"})
+	public String pathfinder;
+
+	// Whether the pursuer starts in the opposite corner ("far") or close to the player ("near")
+	@Param({"far", "near"})
+	public String distance;
+
+	// The world searched in
+	private World world;
+
+	// The pathfinder being measured
+	private Pathfinder engine;
+
+	// Cells of the player and the pursuer
+	private int[] player;
+	private int[] pursuer;
+
+	// Cell of the pursuer walking toward the player
+	private int[] walker;
+
+	/**
+	 * Nodes expanded by the searches of one iteration, reported next to the time.
+	 */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class Expansions {
+
+		// Number of nodes expanded and of searches run
+		public long expandedNodes;
+		public long searches;
+
+		/**
+		 * Clears the counters before an iteration.
+		 */
+		@Setup(Level.Iteration)
+		public void clear() {
+			expandedNodes = 0;
+			searches = 0;
+		}
+	}
+
+	/**
+	 * Creates the world and the pathfinder and places the player and the pursuer. The abstract graph of
+	 * the hierarchical pathfinder is built here, so only its searches are measured.
+	 */
+	@Setup
+	public void setUp() {
+		world = Mazes.world(maze);
+		switch (pathfinder) {
+			case "dijkstra":
+				engine = new DijkstraPathfinder();
+				break;
+			case "astar":
+				engine = new AStarPathfinder();
+				break;
+			case "jps":
+				engine = new JumpPointPathfinder();
+				break;
+			case "hpa":
+				engine = new HierarchicalPathfinder();
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown pathfinder: " + pathfinder);
+		}
+
+		if (Mazes.CLASSIC.equals(maze)) {
+			player = new int[]{0, 7};
+			pursuer = new int[]{14, 2};
+		} else {
+			player = Mazes.firstFreeCell(world.getWalls());
+			pursuer = Mazes.lastFreeCell(world.getWalls());
+		}
+		if ("near".equals(distance)) {
+			pursuer = Mazes.cellOnPath(world, player, pursuer, NEAR_DISTANCE);
+		}
+		walker = pursuer.clone();
+		engine.prepare(world.getWalls());
+	}
+
+	/**
+	 * Searches the first step of the pursuer towards the player.
+	 *
+	 * @param expansions the counters of expanded nodes
+	 * @return the first step
+	 */
+	@Benchmark
+	public Direction firstStep(Expansions expansions) {
+		engine.resetExpandedNodes();
+		Direction step = engine.firstStep(world.getWalls(), pursuer[0], pursuer[1], player[0], player[1]);
+		expansions.expandedNodes += engine.getExpandedNodes();
+		expansions.searches++;
+		return step;
+	}
+
+	/**
+	 * Searches the first step of the walking pursuer towards the player and moves it there. Once it has
+	 * arrived, it starts over from its first cell.
+	 *
+	 * @param expansions the counters of expanded nodes
+	 * @return the step
+	 */
+	@Benchmark
+	public Direction pursue(Expansions expansions) {
+		engine.resetExpandedNodes();
+		Direction step = engine.firstStep(0, world.getWalls(), walker[0], walker[1], player[0], player[1]);
+		expansions.expandedNodes += engine.getExpandedNodes();
+		expansions.searches++;
+
+		if (step == Direction.NONE) {
+			walker[0] = pursuer[0];
+			walker[1] = pursuer[1];
+		} else {
+			walker[0] += step.deltaX;
+			walker[1] += step.deltaY;
+		}
+		return step;
+	}
+}
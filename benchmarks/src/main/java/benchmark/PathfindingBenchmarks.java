@@ -0,0 +1,114 @@
+package benchmark;
+
+import model.Direction;
+import model.HierarchicalPathfinder;
+import model.World;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks full searches with {@link Direction#dijkstra} and {@link Direction#dijkstraDirections}
+ * between opposite corners of the maze, the repair of the distance field when the player steps back and
+ * forth, and building the abstract graph of the {@link HierarchicalPathfinder}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PathfindingBenchmarks {
+
+	// The built-in maze or the side length of a generated one
+	@Param({Mazes.CLASSIC, "64", "256", "1024", "4096"})
+	public String maze;
+
+	// The world searched in
+	private World world;
+
+	// Cells of the player, of the pursuer and a free neighbour of the player
+	private int[] player;
+	private int[] pursuer;
+	private int[] neighbour;
+
+	// Number of distance field updates so far, every other one moves the player back
+	private int steps;
+
+	// Pathfinder whose graph is built
+	private final HierarchicalPathfinder hierarchical = new HierarchicalPathfinder();
+
+	/**
+	 * Creates the world and places the player and the pursuer in opposite corners, on the built-in maze
+	 * on the cells of the original game.
+	 */
+	@Setup
+	public void setUp() {
+		world = Mazes.world(maze);
+		if (Mazes.CLASSIC.equals(maze)) {
+			player = new int[]{0, 7};
+			pursuer = new int[]{14, 2};
+		} else {
+			player = Mazes.firstFreeCell(world.getWalls());
+			pursuer = Mazes.lastFreeCell(world.getWalls());
+		}
+		neighbour = Mazes.freeNeighbour(world.getWalls(), player);
+		world.getDistanceField().update(world.getWalls(), player[0], player[1]);
+	}
+
+	/**
+	 * Searches the shortest path with {@link Direction#dijkstra} without a cached distance field.
+	 *
+	 * @return Length of the path.
+	 */
+	@Benchmark
+	public int dijkstra() {
+		world.getDistanceField().invalidate();
+		return Direction.dijkstra(world, player, pursuer, world.getWalls()).size();
+	}
+
+	/**
+	 * Searches the path directions with {@link Direction#dijkstraDirections} without a cached distance field.
+	 *
+	 * @return Length of the path.
+	 */
+	@Benchmark
+	public int dijkstraDirections() {
+		world.getDistanceField().invalidate();
+		return Direction.dijkstraDirections(world, player, pursuer, world.getWalls()).size();
+	}
+
+	/**
+	 * Repairs the distance field after the player stepped to the neighbouring cell or back.
+	 *
+	 * @return Distance of the pursuer.
+	 */
+	@Benchmark
+	public int distanceFieldStep() {
+		int[] root = (steps++ & 1) == 0 ? neighbour : player;
+		world.getDistanceField().update(world.getWalls(), root[0], root[1]);
+		return world.getDistanceField().getDistance(pursuer[0], pursuer[1]);
+	}
+
+	/**
+	 * Builds the abstract graph of the {@link HierarchicalPathfinder} from scratch.
+	 *
+	 * @return Number of edges in the graph.
+	 */
+	@Benchmark
+	public int hierarchicalBuild() {
+		hierarchical.invalidate();
+		hierarchical.prepare(world.getWalls());
+		return hierarchical.getEdgeCount();
+	}
+}
@@ -0,0 +1,226 @@
+package benchmark;
+
+import model.IntStorage;
+import model.LongStorage;
+import model.RecursiveBacktrackerGenerator;
+import model.StorageAllocator;
+import model.World;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks a full breadth-first search of the distance field with the walls and the distances in
+ * different storage. "heap" is the default {@link StorageAllocator#heap()}, whose arrays the grid and the
+ * field read directly. "interface" keeps the same arrays behind storage classes of its own, so every
+ * access goes through the {@link LongStorage} and {@link IntStorage} interfaces like it does for
+ * off-heap or memory-mapped storage. The difference is the cost of the storage abstraction.
+ * <p>
+ * A game usually uses one kind of storage, so the JIT sees a single storage class and inlines its calls.
+ * With {@code mixed} set, worlds with heap storage and with three classes of interface storage are
+ * searched during the set-up, as in a batch run that plays generated and loaded levels in one JVM, so calls
+ * through the interfaces can no longer be inlined.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StorageBenchmarks {
+
+	// Side length of the generated maze
+	@Param({"64", "256", "1024", "4096"})
+	public int size;
+
+	// Storage of the walls and the distances
+	@Param({"heap", "interface"})
+	public String storage;
+
+	// Whether other kinds of storage were searched before
+	@Param({"false", "true"})
+	public boolean mixed;
+
+	// Number of searches on each kind of storage before a mixed measurement
+	private static final int MIXED_WARMUP_SEARCHES = 200;
+
+	// Side length of the mazes searched before a mixed measurement
+	private static final int MIXED_WARMUP_SIZE = 64;
+
+	// The world searched in
+	private World world;
+
+	/**
+	 * Creates the world with its buffers in the selected storage, and searches worlds with other storage
+	 * first if the measurement is mixed.
+	 */
+	@Setup
+	public void setUp() {
+		StorageAllocator allocator = "heap".equals(storage) ? StorageAllocator.heap() : interfaceAllocator(0);
+		world = new World(size, size, new RecursiveBacktrackerGenerator(), 42, allocator);
+
+		if (mixed) {
+			StorageAllocator[] allocators = {StorageAllocator.heap(), interfaceAllocator(0), interfaceAllocator(1), interfaceAllocator(2)};
+			for (StorageAllocator other : allocators) {
+				World small = new World(MIXED_WARMUP_SIZE, MIXED_WARMUP_SIZE, new RecursiveBacktrackerGenerator(), 42, other);
+				for (int i = 0; i < MIXED_WARMUP_SEARCHES; i++) {
+					search(small);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Recomputes the distance field from the player's cell.
+	 *
+	 * @return Distance of the end of the maze.
+	 */
+	@Benchmark
+	public int distanceField() {
+		return search(world);
+	}
+
+	/**
+	 * Recomputes the distance field of a world from the player's cell.
+	 *
+	 * @param world the world searched in
+	 * @return Distance of the end of the maze.
+	 */
+	static int search(World world) {
+		world.getDistanceField().invalidate();
+		world.getDistanceField().update(world.getWalls(), world.getPlayerX(), world.getPlayerY());
+		return world.getDistanceField().getDistance(world.getEndX(), world.getEndY());
+	}
+
+	/**
+	 * Returns an allocator of heap arrays that are only reachable through the storage interfaces.
+	 *
+	 * @param variant 0, 1 or 2, each of which allocates storage of different classes, so that the calls
+	 *                see several receiver types
+	 */
+	private static StorageAllocator interfaceAllocator(int variant) {
+		return new StorageAllocator() {
+			@Override
+			public LongStorage allocateLongs(int size) {
+				return variant == 0 ? new InterfaceLongs(size) : variant == 1 ? new SecondInterfaceLongs(size) : new ThirdInterfaceLongs(size);
+			}
+
+			@Override
+			public IntStorage allocateInts(int size) {
+				return variant == 0 ? new InterfaceInts(size) : variant == 1 ? new SecondInterfaceInts(size) : new ThirdInterfaceInts(size);
+			}
+		};
+	}
+
+	/**
+	 * Words in a heap array that is only reachable through {@link LongStorage}.
+	 */
+	private static class InterfaceLongs implements LongStorage {
+
+		// The words
+		private final long[] words;
+
+		InterfaceLongs(int size) {
+			this.words = new long[size];
+		}
+
+		@Override
+		public int size() {
+			return words.length;
+		}
+
+		@Override
+		public long get(int index) {
+			return words[index];
+		}
+
+		@Override
+		public void set(int index, long value) {
+			words[index] = value;
+		}
+	}
+
+	/**
+	 * Values in a heap array that are only reachable through {@link IntStorage}.
+	 */
+	private static class InterfaceInts implements IntStorage {
+
+		// The values
+		private final int[] values;
+
+		InterfaceInts(int size) {
+			this.values = new int[size];
+		}
+
+		@Override
+		public int size() {
+			return values.length;
+		}
+
+		@Override
+		public int get(int index) {
+			return values[index];
+		}
+
+		@Override
+		public void set(int index, int value) {
+			values[index] = value;
+		}
+
+		@Override
+		public void fill(int value) {
+			Arrays.fill(values, value);
+		}
+	}
+
+	/**
+	 * Second receiver type of the word storage.
+	 */
+	private static final class SecondInterfaceLongs extends InterfaceLongs {
+
+		SecondInterfaceLongs(int size) {
+			super(size);
+		}
+	}
+
+	/**
+	 * Third receiver type of the word storage.
+	 */
+	private static final class ThirdInterfaceLongs extends InterfaceLongs {
+
+		ThirdInterfaceLongs(int size) {
+			super(size);
+		}
+	}
+
+	/**
+	 * Second receiver type of the value storage.
+	 */
+	private static final class SecondInterfaceInts extends InterfaceInts {
+
+		SecondInterfaceInts(int size) {
+			super(size);
+		}
+	}
+
+	/**
+	 * Third receiver type of the value storage.
+	 */
+	private static final class ThirdInterfaceInts extends InterfaceInts {
+
+		ThirdInterfaceInts(int size) {
+			super(size);
+		}
+	}
+}
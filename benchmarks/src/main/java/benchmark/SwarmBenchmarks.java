@@ -0,0 +1,80 @@
+package benchmark;
+
+import model.World;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link World#movePlayer} with a swarm of {@link #SWARM_SIZE} pursuers in every mode, and in
+ * the chasing modes also with flow-field steering. Finished games are restarted with the swarm on its
+ * spawn cells.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SwarmBenchmarks {
+
+	/**
+	 * Number of pursuers in the swarm.
+	 */
+	public static final int SWARM_SIZE = 10_000;
+
+	// Side length of the generated maze
+	@Param({"64", "256", "1024", "4096"})
+	public String maze;
+
+	// Mode of the game, with "flow-" for flow-field steering
+	@Param({"easy", "medium", "difficult", "flow-medium", "flow-difficult"})
+	public String mode;
+
+	// The world being played
+	private World world;
+
+	// Generator of the player moves
+	private SplittableRandom moves;
+
+	/**
+	 * Creates the world with the swarm in the selected mode.
+	 */
+	@Setup
+	public void setUp() {
+		boolean flow = mode.startsWith("flow-");
+		String baseMode = flow ? mode.substring("flow-".length()) : mode;
+		int modeNumber = "easy".equals(baseMode) ? 1 : "medium".equals(baseMode) ? 2 : 3;
+
+		world = Mazes.world(maze);
+		world.setSwarmSize(SWARM_SIZE);
+		world.setFlowSteering(flow);
+		Mazes.selectMode(world, modeNumber);
+		moves = new SplittableRandom(modeNumber);
+	}
+
+	/**
+	 * Moves the player in a random direction, after restarting a finished game.
+	 *
+	 * @return Sum of the player's coordinates.
+	 */
+	@Benchmark
+	public int movePlayer() {
+		if (world.getWin() || world.getLost()) {
+			world.restartGame();
+		}
+		world.movePlayer(Mazes.MOVES[moves.nextInt(Mazes.MOVES.length)]);
+		return world.getPlayerX() + world.getPlayerY();
+	}
+}
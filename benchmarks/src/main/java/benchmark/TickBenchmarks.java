@@ -0,0 +1,80 @@
+package benchmark;
+
+import model.World;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link World#movePlayer} in every mode. Finished games are restarted; on generated mazes the
+ * player and pursuers are then placed on random free cells.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TickBenchmarks {
+
+	// The built-in maze or the side length of a generated one
+	@Param({Mazes.CLASSIC, "64", "256", "1024", "4096"})
+	public String maze;
+
+	// Mode of the game
+	@Param({"easy", "medium", "difficult"})
+	public String mode;
+
+	// The world being played
+	private World world;
+
+	// Generator of the player moves
+	private SplittableRandom moves;
+
+	// Generator of the cells after a restart, null on the built-in maze
+	private SplittableRandom placement;
+
+	/**
+	 * Creates the world in the selected mode.
+	 */
+	@Setup
+	public void setUp() {
+		int modeNumber = "easy".equals(mode) ? 1 : "medium".equals(mode) ? 2 : 3;
+		world = Mazes.world(maze);
+		Mazes.selectMode(world, modeNumber);
+		moves = new SplittableRandom(modeNumber);
+		if (!Mazes.CLASSIC.equals(maze)) {
+			placement = new SplittableRandom(7);
+			Mazes.restart(world, placement);
+		}
+	}
+
+	/**
+	 * Moves the player in a random direction, after restarting a finished game.
+	 *
+	 * @return Sum of the player's coordinates.
+	 */
+	@Benchmark
+	public int movePlayer() {
+		if (world.getWin() || world.getLost()) {
+			if (placement == null) {
+				world.restartGame();
+			} else {
+				Mazes.restart(world, placement);
+			}
+		}
+		world.movePlayer(Mazes.MOVES[moves.nextInt(Mazes.MOVES.length)]);
+		return world.getPlayerX() + world.getPlayerY();
+	}
+}
@@ -0,0 +1,70 @@
+package benchmark;
+
+import model.OffHeapAllocator;
+import model.RecursiveBacktrackerGenerator;
+import model.World;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.foreign.Arena;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the search of {@link StorageBenchmarks} with the walls and the distances off the heap, to be
+ * compared with its "heap" and "interface" results. Only compiled on JDK 22 or later.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OffHeapStorageBenchmarks {
+
+	// Side length of the generated maze
+	@Param({"64", "256", "1024", "4096"})
+	public int size;
+
+	// Arena of the off-heap buffers
+	private Arena arena;
+
+	// The world searched in
+	private World world;
+
+	/**
+	 * Creates the world with its buffers off the heap.
+	 */
+	@Setup
+	public void setUp() {
+		arena = Arena.ofShared();
+		world = new World(size, size, new RecursiveBacktrackerGenerator(), 42, new OffHeapAllocator(arena));
+	}
+
+	/**
+	 * Releases the off-heap buffers.
+	 */
+	@TearDown
+	public void tearDown() {
+		arena.close();
+	}
+
+	/**
+	 * Recomputes the distance field from the player's cell.
+	 *
+	 * @return Distance of the end of the maze.
+	 */
+	@Benchmark
+	public int distanceField() {
+		return StorageBenchmarks.search(world);
+	}
+}